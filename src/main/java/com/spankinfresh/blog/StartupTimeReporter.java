@@ -0,0 +1,30 @@
+package com.spankinfresh.blog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Used by the {@code cds} build profile: logs how long the JVM took to become ready and then shuts
+ * the application down, so the same run can record a class-data-sharing archive or serve as a
+ * startup benchmark.
+ */
+@Component
+@ConditionalOnProperty("blog.startup.exit-when-ready")
+public class StartupTimeReporter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeReporter.class);
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        log.info("Startup benchmark: application ready {} ms after JVM start",
+                ManagementFactory.getRuntimeMXBean().getUptime());
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
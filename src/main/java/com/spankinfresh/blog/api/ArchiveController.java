@@ -0,0 +1,41 @@
+package com.spankinfresh.blog.api;
+
+import com.spankinfresh.blog.archive.ArchiveRollups;
+import com.spankinfresh.blog.domain.AuthorCount;
+import com.spankinfresh.blog.domain.CategoryCount;
+import com.spankinfresh.blog.domain.MonthCount;
+import com.spankinfresh.blog.ratelimit.RateLimited;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/archive")
+public class ArchiveController {
+
+    private final ArchiveRollups archiveRollups;
+
+    public ArchiveController(ArchiveRollups archiveRollups) {
+        this.archiveRollups = archiveRollups;
+    }
+
+    @GetMapping("/months")
+    @RateLimited(clientPermitsPerSecond = 20, clientBurst = 50, databaseBound = false)
+    public List<MonthCount> getMonths() {
+        return archiveRollups.getMonths();
+    }
+
+    @GetMapping("/categories")
+    @RateLimited(clientPermitsPerSecond = 20, clientBurst = 50, databaseBound = false)
+    public List<CategoryCount> getCategories() {
+        return archiveRollups.getCategories();
+    }
+
+    @GetMapping("/authors")
+    @RateLimited(clientPermitsPerSecond = 20, clientBurst = 50, databaseBound = false)
+    public List<AuthorCount> getAuthors() {
+        return archiveRollups.getAuthors();
+    }
+}
@@ -0,0 +1,58 @@
+package com.spankinfresh.blog.api;
+
+import com.spankinfresh.blog.data.BlogPostJdbcTemplateRepository;
+import com.spankinfresh.blog.ratelimit.RateLimited;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+public class ArticleBatchController {
+
+    static final int MAX_IDS = 100;
+
+    private final BlogPostJdbcTemplateRepository blogPostJdbcTemplateRepository;
+
+    public ArticleBatchController(BlogPostJdbcTemplateRepository blogPostJdbcTemplateRepository) {
+        this.blogPostJdbcTemplateRepository = blogPostJdbcTemplateRepository;
+    }
+
+    /**
+     * Up to {@value #MAX_IDS} articles in one query, e.g. {@code ?ids=3,5,8&fields=title,slug}.
+     * Without {@code fields} every field is returned. Ids that are not published articles are left out.
+     */
+    @GetMapping(value = "/api/articles", params = "ids")
+    @RateLimited(clientPermitsPerSecond = 10, clientBurst = 30, endpointPermitsPerSecond = 200, endpointBurst = 400)
+    public ResponseEntity<?> getItemsByIds(@RequestParam("ids") List<Long> ids,
+                                           @RequestParam(value = "fields", required = false) List<String> fields) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.size() > MAX_IDS) {
+            return badRequest("ids", "Please request at most " + MAX_IDS + " articles at a time");
+        }
+        Set<String> selected = BlogPostJdbcTemplateRepository.SELECTABLE_FIELDS;
+        if (fields != null) {
+            selected = new LinkedHashSet<>(fields);
+            selected.remove("id");
+            if (!BlogPostJdbcTemplateRepository.SELECTABLE_FIELDS.containsAll(selected)) {
+                return badRequest("fields", "Fields must be among id, "
+                        + String.join(", ", BlogPostJdbcTemplateRepository.SELECTABLE_FIELDS));
+            }
+        }
+        return new ResponseEntity<>(blogPostJdbcTemplateRepository.getArticlesByIds(distinctIds, selected), HttpStatus.OK);
+    }
+
+    private static ResponseEntity<HashMap<String, HashMap<String, String>>> badRequest(String field, String message) {
+        HashMap<String, String> fieldErrorMap = new HashMap<>();
+        fieldErrorMap.put(field, message);
+        HashMap<String, HashMap<String, String>> response = new HashMap<>();
+        response.put("fieldErrors", fieldErrorMap);
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,25 @@
+package com.spankinfresh.blog.api;
+
+import com.spankinfresh.blog.events.ArticleEventBroadcaster;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+public class ArticleEventController {
+
+    private final ArticleEventBroadcaster articleEventBroadcaster;
+
+    public ArticleEventController(ArticleEventBroadcaster articleEventBroadcaster) {
+        this.articleEventBroadcaster = articleEventBroadcaster;
+    }
+
+    @GetMapping(path = "/api/articles/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamArticleEvents(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+                                          @RequestParam(value = "lastEventId", required = false) Long lastEventIdParam) {
+        return articleEventBroadcaster.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam);
+    }
+}
@@ -0,0 +1,42 @@
+package com.spankinfresh.blog.api;
+
+import com.spankinfresh.blog.domain.ArticleRevision;
+import com.spankinfresh.blog.ratelimit.RateLimited;
+import com.spankinfresh.blog.revisions.ArticleRevisionService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/articles/{id}/revisions")
+public class ArticleRevisionController {
+
+    private final ArticleRevisionService articleRevisionService;
+
+    public ArticleRevisionController(ArticleRevisionService articleRevisionService) {
+        this.articleRevisionService = articleRevisionService;
+    }
+
+    @GetMapping
+    @RateLimited(clientPermitsPerSecond = 5, clientBurst = 20)
+    public ResponseEntity<List<ArticleRevision>> getRevisions(@PathVariable Long id) {
+        List<ArticleRevision> revisions = articleRevisionService.getRevisions(id);
+        if (revisions.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(revisions, HttpStatus.OK);
+    }
+
+    @GetMapping("{revision}")
+    @RateLimited(clientPermitsPerSecond = 2, clientBurst = 10)
+    public ResponseEntity<ArticleRevision> getRevision(@PathVariable Long id, @PathVariable Integer revision) {
+        return articleRevisionService.getRevision(id, revision)
+                .map(found -> new ResponseEntity<>(found, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+}
@@ -2,6 +2,9 @@ package com.spankinfresh.blog.api;
 
 import com.spankinfresh.blog.data.AuthorRepository;
 import com.spankinfresh.blog.domain.Author;
+import com.spankinfresh.blog.events.AuthorChangedEvent;
+import com.spankinfresh.blog.ratelimit.RateLimited;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,12 +21,15 @@ import java.util.Optional;
 public class AuthorController {
 
     private final AuthorRepository authorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AuthorController(AuthorRepository authorRepository) {
+    public AuthorController(AuthorRepository authorRepository, ApplicationEventPublisher eventPublisher) {
         this.authorRepository = authorRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @PostMapping
+    @RateLimited(clientPermitsPerSecond = 1, clientBurst = 10)
     public ResponseEntity<Author> createAuthor(@Valid @RequestBody Author author, UriComponentsBuilder uriComponentsBuilder) {
         Author savedItem = authorRepository.save(author);
         UriComponents uriComponents = uriComponentsBuilder.path("/api/authors/{id}").buildAndExpand(savedItem.getId());
@@ -33,11 +39,13 @@ public class AuthorController {
     }
 
     @GetMapping
+    @RateLimited(clientPermitsPerSecond = 1, clientBurst = 10)
     public Iterable<Author> getAllItems() {
         return authorRepository.findAll();
     }
 
     @GetMapping("{id}")
+    @RateLimited(clientPermitsPerSecond = 20, clientBurst = 50)
     public ResponseEntity<Iterable<Author>> getItemById(@PathVariable Long id) {
         Optional<Author> searchResult = authorRepository.findById(id);
         if (searchResult.isPresent()) {
@@ -47,22 +55,26 @@ public class AuthorController {
     }
 
     @PutMapping("{id}")
+    @RateLimited(clientPermitsPerSecond = 1, clientBurst = 10)
     public ResponseEntity<Author> updateAuthor(@PathVariable Long id, @RequestBody Author author) {
         if (author.getId() != id) {
             return new ResponseEntity<>(HttpStatus.CONFLICT);
         }
         if (authorRepository.existsById(id)) {
             authorRepository.save(author);
+            eventPublisher.publishEvent(new AuthorChangedEvent(AuthorChangedEvent.Type.UPDATED, author));
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
     @DeleteMapping("{id}")
+    @RateLimited(clientPermitsPerSecond = 1, clientBurst = 10)
     public ResponseEntity<Author> deleteBlogEntryById(@PathVariable Long id) {
         Optional<Author> author = authorRepository.findById(id);
         if (author.isPresent()) {
             authorRepository.delete(author.get());
+            eventPublisher.publishEvent(new AuthorChangedEvent(AuthorChangedEvent.Type.DELETED, author.get()));
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -1,7 +1,21 @@
 package com.spankinfresh.blog.api;
 
+import com.spankinfresh.blog.content.ArticleBodyCache;
+import com.spankinfresh.blog.content.StoredArticle;
+import com.spankinfresh.blog.data.BlogPostReadCoalescer;
 import com.spankinfresh.blog.data.BlogPostRepository;
+import com.spankinfresh.blog.data.CategoryDictionary;
+import com.spankinfresh.blog.data.ScheduledPublishingJdbcTemplateRepository;
 import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.domain.PopularArticle;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import com.spankinfresh.blog.publishing.ScheduledPublisher;
+import com.spankinfresh.blog.ratelimit.RateLimited;
+import com.spankinfresh.blog.slugs.SlugIndex;
+import com.spankinfresh.blog.slugs.SlugResolution;
+import com.spankinfresh.blog.views.ArticleViewCounter;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,21 +28,55 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/articles")
 public class BlogPostController {
 
+    private static final int SLUG_ATTEMPTS = 3;
+
     private final BlogPostRepository blogPostRepository;
+    private final BlogPostReadCoalescer blogPostReadCoalescer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ArticleViewCounter articleViewCounter;
+    private final CategoryDictionary categoryDictionary;
+    private final ArticleBodyCache articleBodyCache;
+    private final ScheduledPublisher scheduledPublisher;
+    private final ScheduledPublishingJdbcTemplateRepository scheduledPublishingRepository;
+    private final SlugIndex slugIndex;
 
-    public BlogPostController(BlogPostRepository blogPostRepository) {
+    public BlogPostController(BlogPostRepository blogPostRepository, BlogPostReadCoalescer blogPostReadCoalescer,
+                              ApplicationEventPublisher eventPublisher, ArticleViewCounter articleViewCounter,
+                              CategoryDictionary categoryDictionary, ArticleBodyCache articleBodyCache,
+                              ScheduledPublisher scheduledPublisher,
+                              ScheduledPublishingJdbcTemplateRepository scheduledPublishingRepository,
+                              SlugIndex slugIndex) {
         this.blogPostRepository = blogPostRepository;
+        this.blogPostReadCoalescer = blogPostReadCoalescer;
+        this.eventPublisher = eventPublisher;
+        this.articleViewCounter = articleViewCounter;
+        this.categoryDictionary = categoryDictionary;
+        this.articleBodyCache = articleBodyCache;
+        this.scheduledPublisher = scheduledPublisher;
+        this.scheduledPublishingRepository = scheduledPublishingRepository;
+        this.slugIndex = slugIndex;
     }
 
     @PostMapping
+    @RateLimited(clientPermitsPerSecond = 1, clientBurst = 10, endpointPermitsPerSecond = 50, endpointBurst = 100)
     public ResponseEntity<BlogPost> createBlogEntry(@Valid @RequestBody BlogPost blogPost, UriComponentsBuilder uriComponentsBuilder) {
-        blogPost.setDatePosted(LocalDateTime.now());
-        BlogPost savedItem = blogPostRepository.save(blogPost);
+        LocalDateTime now = LocalDateTime.now();
+        boolean scheduled = blogPost.getPublishAt() != null && blogPost.getPublishAt().isAfter(now);
+        blogPost.setDatePosted(scheduled ? blogPost.getPublishAt() : now);
+        blogPost.setPublished(!scheduled);
+        blogPost.setCategoryRef(categoryDictionary.resolve(blogPost.getCategory()));
+        BlogPost savedItem = saveWithSlug(blogPost, 0, null, () -> blogPostRepository.save(blogPost));
+        if (scheduled) {
+            scheduledPublisher.schedule(savedItem.getId(), blogPost.getPublishAt());
+        } else {
+            eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.CREATED, savedItem));
+        }
         UriComponents uriComponents = uriComponentsBuilder.path("/api/articles/{id}").buildAndExpand(savedItem.getId());
         HttpHeaders headers = new HttpHeaders();
         headers.add("Location", uriComponents.toUri().toString());
@@ -36,43 +84,155 @@ public class BlogPostController {
     }
 
     @GetMapping
+    @RateLimited(clientPermitsPerSecond = 0.2, clientBurst = 5, endpointPermitsPerSecond = 10, endpointBurst = 20)
     public Iterable<BlogPost> getAllItems() {
         return blogPostRepository.findAll();
     }
 
     @GetMapping("{id}")
-    public ResponseEntity<Iterable<BlogPost>> getItemById(@PathVariable Long id) {
-        Optional<BlogPost> searchResult = blogPostRepository.findById(id);
+    @RateLimited(clientPermitsPerSecond = 50, clientBurst = 100)
+    public ResponseEntity<?> getItemById(@PathVariable Long id) {
+        Optional<StoredArticle> stored = articleBodyCache.find(id);
+        if (stored.isPresent()) {
+            articleViewCounter.recordView(id);
+            return new ResponseEntity<>(stored.get(), HttpStatus.OK);
+        }
+        long generation = articleBodyCache.generation();
+        Optional<BlogPost> searchResult = blogPostReadCoalescer.findById(id);
         if (searchResult.isPresent()) {
+            articleViewCounter.recordView(id);
+            articleBodyCache.remember(searchResult.get(), generation);
             return new ResponseEntity<>(Collections.singleton(searchResult.get()), HttpStatus.OK);
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
+    @GetMapping("/by-slug/{slug}")
+    @RateLimited(clientPermitsPerSecond = 50, clientBurst = 100)
+    public ResponseEntity<?> getItemBySlug(@PathVariable String slug, UriComponentsBuilder uriComponentsBuilder) {
+        Optional<SlugResolution> resolution = slugIndex.resolve(slug);
+        if (resolution.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (resolution.get().isRedirect()) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setLocation(uriComponentsBuilder.path("/api/articles/by-slug/{slug}")
+                    .buildAndExpand(resolution.get().getRedirectTo()).toUri());
+            return new ResponseEntity<>(headers, HttpStatus.MOVED_PERMANENTLY);
+        }
+        return getItemById(resolution.get().getArticleId());
+    }
+
+    @GetMapping("/scheduled")
+    @RateLimited(clientPermitsPerSecond = 2, clientBurst = 10)
+    public List<BlogPost> getScheduledItems() {
+        return scheduledPublishingRepository.getScheduledOmittingContent();
+    }
+
+    @GetMapping("/popular")
+    @RateLimited(clientPermitsPerSecond = 20, clientBurst = 50, databaseBound = false)
+    public List<PopularArticle> getPopularItems() {
+        return articleViewCounter.getPopular();
+    }
+
     @GetMapping("/category")
+    @RateLimited(clientPermitsPerSecond = 10, clientBurst = 30, endpointPermitsPerSecond = 200, endpointBurst = 400)
     List<BlogPost> getAllBlogPostsByCategory(@RequestParam("categoryName") String categoryName) {
-        return blogPostRepository.findByCategoryOrderByDatePostedDesc(categoryName);
+        return categoryDictionary.findByName(categoryName)
+                .map(category -> blogPostReadCoalescer.findByCategoryIdOrderByDatePostedDesc(category.getId()))
+                .orElseGet(Collections::emptyList);
     }
 
     @PutMapping("{id}")
-    public ResponseEntity<BlogPost> updateBlogEntry(@PathVariable Long id, @RequestBody BlogPost blogEntry) {
+    @RateLimited(clientPermitsPerSecond = 1, clientBurst = 10)
+    public ResponseEntity<BlogPost> updateBlogEntry(@PathVariable Long id, @Valid @RequestBody BlogPost blogEntry) {
         if (blogEntry.getId() != id) {
             return new ResponseEntity<>(HttpStatus.CONFLICT);
         }
         if (blogPostRepository.existsById(id)) {
-            blogPostRepository.save(blogEntry);
+            blogEntry.setPublishAt(null);
+            blogEntry.setCategoryRef(categoryDictionary.resolve(blogEntry.getCategory()));
+            saveWithSlug(blogEntry, id, null, () -> blogPostRepository.save(blogEntry));
+            eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.UPDATED, blogEntry));
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
+        Optional<BlogPost> scheduled = scheduledPublishingRepository.findScheduled(id);
+        if (scheduled.isPresent()) {
+            return updateScheduledEntry(scheduled.get(), blogEntry);
+        }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
     @DeleteMapping("{id}")
+    @RateLimited(clientPermitsPerSecond = 1, clientBurst = 10)
     public ResponseEntity<BlogPost> deleteBlogEntryById(@PathVariable Long id) {
         Optional<BlogPost> blogEntry = blogPostRepository.findById(id);
         if (blogEntry.isPresent()) {
             blogPostRepository.delete(blogEntry.get());
+            eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.DELETED, blogEntry.get()));
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        }
+        Optional<BlogPost> scheduled = scheduledPublishingRepository.findScheduled(id);
+        if (scheduled.isPresent()) {
+            scheduledPublisher.cancel(id);
+            if (!scheduledPublishingRepository.deleteScheduled(id)) {
+                // published while this request was running; a retry deletes it as a published article
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
+            slugIndex.release(scheduled.get().getSlug());
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
+
+    /**
+     * Replaces an article that is not yet published and moves it to its new publish time, or keeps
+     * the one it had when the update does not give one. Nothing is announced until it is published.
+     */
+    private ResponseEntity<BlogPost> updateScheduledEntry(BlogPost current, BlogPost blogEntry) {
+        if (blogEntry.getPublishAt() == null) {
+            blogEntry.setPublishAt(current.getPublishAt());
+        }
+        blogEntry.setDatePosted(blogEntry.getPublishAt());
+        blogEntry.setCategoryRef(categoryDictionary.resolve(blogEntry.getCategory()));
+        boolean updated = saveWithSlug(blogEntry, current.getId(), current.getSlug(),
+                () -> scheduledPublishingRepository.updateScheduled(blogEntry));
+        if (!updated) {
+            releaseIfReplaced(blogEntry.getSlug(), current.getSlug());
+            // published while this request was running; a retry updates it as a published article
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+        releaseIfReplaced(current.getSlug(), blogEntry.getSlug());
+        scheduledPublisher.schedule(current.getId(), blogEntry.getPublishAt());
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    /**
+     * Gives the article a slug for its title and saves it. If another instance saved an article
+     * under the same slug first, the unique index rejects the save and the next free slug is tried.
+     * A slug reserved here is given back when the save fails, unless it is {@code currentSlug}.
+     */
+    private <T> T saveWithSlug(BlogPost article, long articleId, String currentSlug, Supplier<T> save) {
+        for (int attempt = 1; ; attempt++) {
+            String slug = slugIndex.reserve(articleId, article.getTitle());
+            article.setSlug(slug);
+            try {
+                return save.get();
+            } catch (DataIntegrityViolationException e) {
+                releaseIfReplaced(slug, currentSlug);
+                if (attempt == SLUG_ATTEMPTS || !slugIndex.takenElsewhere(slug, articleId)) {
+                    throw e;
+                }
+            } catch (RuntimeException e) {
+                releaseIfReplaced(slug, currentSlug);
+                throw e;
+            }
+        }
+    }
+
+    private void releaseIfReplaced(String slug, String replacement) {
+        if (slug != null && !slug.equals(replacement)) {
+            slugIndex.release(slug);
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.spankinfresh.blog.api;
 import com.spankinfresh.blog.data.BlogPostJdbcTemplateRepository;
 import com.spankinfresh.blog.domain.BlogPost;
 import com.spankinfresh.blog.domain.Category;
+import com.spankinfresh.blog.ratelimit.RateLimited;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -17,11 +18,13 @@ public class ContentController {
     }
 
     @GetMapping("/api/summary/articles")
+    @RateLimited(clientPermitsPerSecond = 2, clientBurst = 20, endpointPermitsPerSecond = 100, endpointBurst = 200)
     public List<BlogPost> getAll() {
         return blogPostJdbcTemplateRepository.getAllBlogPostingsOmittingContent();
     }
 
     @GetMapping("/api/categories")
+    @RateLimited(clientPermitsPerSecond = 5, clientBurst = 20)
     List<Category> getAllCategories() {
         return blogPostJdbcTemplateRepository.getCategoryList();
     }
@@ -0,0 +1,73 @@
+package com.spankinfresh.blog.api;
+
+import com.spankinfresh.blog.feed.ArticleFeeds;
+import com.spankinfresh.blog.feed.RenderedDocument;
+import com.spankinfresh.blog.ratelimit.RateLimited;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+public class FeedController {
+
+    private static final MediaType RSS = MediaType.parseMediaType("application/rss+xml;charset=UTF-8");
+    private static final MediaType ATOM = MediaType.parseMediaType("application/atom+xml;charset=UTF-8");
+    private static final MediaType XML = MediaType.parseMediaType("application/xml;charset=UTF-8");
+
+    private final ArticleFeeds articleFeeds;
+
+    public FeedController(ArticleFeeds articleFeeds) {
+        this.articleFeeds = articleFeeds;
+    }
+
+    @GetMapping("/api/feeds/rss")
+    @RateLimited(clientPermitsPerSecond = 2, clientBurst = 20, databaseBound = false)
+    public ResponseEntity<byte[]> getRssFeed(@RequestParam(value = "category", required = false) String category,
+                                             WebRequest webRequest) {
+        return serve(articleFeeds.rss(category), RSS, webRequest);
+    }
+
+    @GetMapping("/api/feeds/atom")
+    @RateLimited(clientPermitsPerSecond = 2, clientBurst = 20, databaseBound = false)
+    public ResponseEntity<byte[]> getAtomFeed(@RequestParam(value = "category", required = false) String category,
+                                              WebRequest webRequest) {
+        return serve(articleFeeds.atom(category), ATOM, webRequest);
+    }
+
+    @GetMapping("/sitemap.xml")
+    @RateLimited(clientPermitsPerSecond = 2, clientBurst = 20, databaseBound = false)
+    public ResponseEntity<byte[]> getSitemapIndex(WebRequest webRequest) {
+        return serve(Optional.of(articleFeeds.sitemapIndex()), XML, webRequest);
+    }
+
+    @GetMapping("/sitemap-{part}.xml")
+    @RateLimited(clientPermitsPerSecond = 5, clientBurst = 50, databaseBound = false)
+    public ResponseEntity<byte[]> getSitemapPart(@PathVariable int part, WebRequest webRequest) {
+        return serve(articleFeeds.sitemapPart(part), XML, webRequest);
+    }
+
+    private static ResponseEntity<byte[]> serve(Optional<RenderedDocument> result, MediaType mediaType, WebRequest webRequest) {
+        if (result.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        RenderedDocument document = result.get();
+        if (webRequest.checkNotModified(document.getEtag(), document.getLastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .eTag(document.getEtag())
+                .lastModified(document.getLastModified())
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(document.getBody());
+    }
+}
@@ -0,0 +1,26 @@
+package com.spankinfresh.blog.api;
+
+import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.ratelimit.RateLimited;
+import com.spankinfresh.blog.related.RelatedArticles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class RelatedArticlesController {
+
+    private final RelatedArticles relatedArticles;
+
+    public RelatedArticlesController(RelatedArticles relatedArticles) {
+        this.relatedArticles = relatedArticles;
+    }
+
+    @GetMapping("/api/articles/{id}/related")
+    @RateLimited(clientPermitsPerSecond = 20, clientBurst = 50, databaseBound = false)
+    public List<BlogPost> getRelated(@PathVariable Long id) {
+        return relatedArticles.getRelated(id);
+    }
+}
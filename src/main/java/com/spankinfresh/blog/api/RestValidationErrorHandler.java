@@ -1,6 +1,11 @@
 package com.spankinfresh.blog.api;
 
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.spankinfresh.blog.domain.OversizedValueException;
+import com.spankinfresh.blog.upload.PayloadTooLargeException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -9,6 +14,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 import java.util.HashMap;
+import java.util.List;
 
 @ControllerAdvice("com.spankinfresh.blog.api")
 public class RestValidationErrorHandler {
@@ -25,4 +31,21 @@ public class RestValidationErrorHandler {
         response.put("fieldErrors", fieldErrorMap);
         return response;
     }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<HashMap<String, HashMap<String, String>>> handleUnreadableBody(HttpMessageNotReadableException exception) {
+        Throwable cause = exception.getCause();
+        if (cause instanceof PayloadTooLargeException) {
+            return new ResponseEntity<>(HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        if (cause instanceof OversizedValueException) {
+            List<JsonMappingException.Reference> path = ((OversizedValueException) cause).getPath();
+            HashMap<String, String> fieldErrorMap = new HashMap<>();
+            fieldErrorMap.put(path.get(path.size() - 1).getFieldName(), ((OversizedValueException) cause).getValidationMessage());
+            HashMap<String, HashMap<String, String>> response = new HashMap<>();
+            response.put("fieldErrors", fieldErrorMap);
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+        throw exception;
+    }
 }
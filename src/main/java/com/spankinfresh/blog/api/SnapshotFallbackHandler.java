@@ -0,0 +1,102 @@
+package com.spankinfresh.blog.api;
+
+import com.spankinfresh.blog.snapshot.DatabaseCircuitBreaker;
+import com.spankinfresh.blog.snapshot.MappedSnapshot;
+import com.spankinfresh.blog.snapshot.SnapshotService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionException;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Answers GET requests from the local snapshot when the database cannot be reached. Only the
+ * read endpoints the snapshot has data for are covered; everything else, including all writes,
+ * still fails as before. Responses served this way carry {@code X-Served-From: snapshot} and the
+ * time the snapshot was taken. Failures are reported to the {@link DatabaseCircuitBreaker}, which
+ * after several in a row sends reads straight here without waiting for a connection.
+ */
+@ControllerAdvice("com.spankinfresh.blog.api")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SnapshotFallbackHandler {
+
+    private final ObjectProvider<SnapshotService> snapshotService;
+    private final ObjectProvider<DatabaseCircuitBreaker> databaseCircuitBreaker;
+
+    public SnapshotFallbackHandler(ObjectProvider<SnapshotService> snapshotService,
+                                   ObjectProvider<DatabaseCircuitBreaker> databaseCircuitBreaker) {
+        this.snapshotService = snapshotService;
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+    }
+
+    @ExceptionHandler({DataAccessException.class, TransactionException.class})
+    public ResponseEntity<Object> handleDatabaseUnavailable(RuntimeException exception, HttpServletRequest request) {
+        databaseCircuitBreaker.ifAvailable(breaker -> breaker.recordFailure(exception));
+        Optional<MappedSnapshot> snapshot = Optional.ofNullable(snapshotService.getIfAvailable())
+                .flatMap(SnapshotService::getSnapshot);
+        if (!"GET".equals(request.getMethod()) || snapshot.isEmpty()) {
+            throw exception;
+        }
+        Object body = serve(snapshot.get(), request);
+        if (body == null) {
+            throw exception;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Served-From", "snapshot");
+        headers.setLastModified(snapshot.get().getCreatedAt());
+        if (body instanceof Optional) {
+            return ((Optional<?>) body)
+                    .<ResponseEntity<Object>>map(found -> new ResponseEntity<>(Collections.singleton(found), headers, HttpStatus.OK))
+                    .orElseGet(() -> new ResponseEntity<>(headers, HttpStatus.NOT_FOUND));
+        }
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    private Object serve(MappedSnapshot snapshot, HttpServletRequest request) {
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pattern == null) {
+            return null;
+        }
+        // keep in step with SnapshotService.SERVED_PATTERNS, which the circuit breaker goes by
+        switch (pattern) {
+            case "/api/articles":
+                return request.getParameter("ids") == null ? snapshot.findAllArticles() : null;
+            case "/api/articles/{id}":
+                return parseId(variables).flatMap(snapshot::findArticle);
+            case "/api/articles/category":
+                String categoryName = request.getParameter("categoryName");
+                return categoryName == null ? null : snapshot.findByCategoryName(categoryName);
+            case "/api/summary/articles":
+                return snapshot.findAllSummaries();
+            case "/api/categories":
+                return snapshot.findCategoriesInUse();
+            case "/api/authors":
+                return snapshot.findAllAuthors();
+            case "/api/authors/{id}":
+                return parseId(variables).flatMap(snapshot::findAuthor);
+            default:
+                return null;
+        }
+    }
+
+    private static Optional<Long> parseId(Map<String, String> variables) {
+        try {
+            return Optional.of(Long.parseLong(variables.get("id")));
+        } catch (NumberFormatException | NullPointerException e) {
+            return Optional.empty();
+        }
+    }
+}
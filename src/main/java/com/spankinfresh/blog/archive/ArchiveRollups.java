@@ -0,0 +1,249 @@
+package com.spankinfresh.blog.archive;
+
+import com.spankinfresh.blog.data.ArchiveJdbcTemplateRepository;
+import com.spankinfresh.blog.domain.Author;
+import com.spankinfresh.blog.domain.AuthorCount;
+import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.domain.CategoryCount;
+import com.spankinfresh.blog.domain.MonthCount;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import com.spankinfresh.blog.events.AuthorChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+/**
+ * Article counts per month, category and author for the archive sidebar. The counts are built
+ * from one small fact per article (month, category, author), so an update can take back what the
+ * previous version of the article contributed. They are rebuilt in parallel id ranges at startup
+ * and maintained from article and author change events after that. Changes made through another
+ * instance raise no event here, so the counts are also rebuilt every
+ * {@code blog.archive.rebuild-interval-ms}.
+ */
+@Component
+public class ArchiveRollups {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveRollups.class);
+
+    private final ArchiveJdbcTemplateRepository archiveRepository;
+    private final int parallelism;
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "archive-rollups");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final Object rebuildLock = new Object();
+    private volatile Rollup rollup = new Rollup();
+    private Map<Long, ArticleChangedEvent> changedDuringRebuild;
+    private Map<Long, AuthorChangedEvent> authorsChangedDuringRebuild;
+
+    public ArchiveRollups(ArchiveJdbcTemplateRepository archiveRepository,
+                          @Value("${blog.archive.rebuild-parallelism:4}") int parallelism) {
+        this.archiveRepository = archiveRepository;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public List<MonthCount> getMonths() {
+        List<MonthCount> months = new ArrayList<>();
+        rollup.byMonth.forEach((month, count) -> months.add(new MonthCount(month.getYear(), month.getMonthValue(), count)));
+        months.sort(Comparator.comparingInt(MonthCount::getYear).thenComparingInt(MonthCount::getMonth).reversed());
+        return months;
+    }
+
+    public List<CategoryCount> getCategories() {
+        List<CategoryCount> categories = new ArrayList<>();
+        rollup.byCategory.forEach((category, count) -> categories.add(new CategoryCount(category, count)));
+        categories.sort(Comparator.comparing(CategoryCount::getCategory));
+        return categories;
+    }
+
+    public List<AuthorCount> getAuthors() {
+        Rollup current = rollup;
+        List<AuthorCount> authors = new ArrayList<>();
+        current.byAuthor.forEach((authorId, count) -> {
+            String[] name = current.authorNames.getOrDefault(authorId, new String[2]);
+            authors.add(new AuthorCount(authorId, name[0], name[1], count));
+        });
+        authors.sort(Comparator.comparingLong(AuthorCount::getCount).reversed().thenComparingLong(AuthorCount::getAuthorId));
+        return authors;
+    }
+
+    @Scheduled(initialDelayString = "${blog.archive.rebuild-interval-ms:600000}",
+            fixedDelayString = "${blog.archive.rebuild-interval-ms:600000}")
+    public void scheduleRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildQueued.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new HashMap<>();
+                authorsChangedDuringRebuild = new HashMap<>();
+            }
+            Rollup fresh = new Rollup();
+            boolean built = false;
+            try {
+                Optional<long[]> idRange = archiveRepository.getIdRange();
+                if (idRange.isPresent()) {
+                    load(fresh, idRange.get()[0], idRange.get()[1]);
+                }
+                built = true;
+            } catch (DataAccessException e) {
+                log.warn("Could not build the archive counts; they stay as they are", e);
+            } finally {
+                synchronized (this) {
+                    if (built) {
+                        rollup = fresh;
+                        changedDuringRebuild.values().forEach(event -> apply(fresh, event));
+                        authorsChangedDuringRebuild.values().forEach(event -> apply(fresh, event));
+                    }
+                    changedDuringRebuild = null;
+                    authorsChangedDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public synchronized void onArticleChanged(ArticleChangedEvent event) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(event.getArticleId(), event);
+        }
+        apply(rollup, event);
+    }
+
+    @EventListener
+    public synchronized void onAuthorChanged(AuthorChangedEvent event) {
+        if (authorsChangedDuringRebuild != null) {
+            authorsChangedDuringRebuild.put(event.getAuthorId(), event);
+        }
+        apply(rollup, event);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void load(Rollup fresh, long lowId, long highId) {
+        int parts = parallelism * 4;
+        long step = Math.max(1, (highId - lowId) / parts + 1);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> LongStream.range(0, parts).parallel().forEach(part -> {
+                long fromId = lowId + part * step;
+                archiveRepository.streamFacts(fromId, fromId + step, row -> {
+                    long authorId = row.getLong("author_id");
+                    fresh.authorNames.put(authorId, new String[]{row.getString("first_name"), row.getString("last_name")});
+                    Timestamp datePosted = row.getTimestamp("date_posted");
+                    fresh.add(row.getLong("id"), new Fact(datePosted == null ? null : datePosted.toLocalDateTime(),
+                            row.getString("category_name"), authorId));
+                });
+            })).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void apply(Rollup target, ArticleChangedEvent event) {
+        if (event.getType() == ArticleChangedEvent.Type.DELETED) {
+            target.remove(event.getArticleId());
+            return;
+        }
+        BlogPost article = event.getArticle();
+        Author author = article.getAuthor();
+        Long authorId = author == null ? null : author.getId();
+        if (author != null && author.getLastName() != null) {
+            target.authorNames.put(authorId, new String[]{author.getFirstName(), author.getLastName()});
+        }
+        target.add(article.getId(), new Fact(article.getDatePosted(), article.getCategory(), authorId));
+    }
+
+    private static void apply(Rollup target, AuthorChangedEvent event) {
+        if (event.getType() == AuthorChangedEvent.Type.DELETED) {
+            target.authorNames.remove(event.getAuthorId());
+            return;
+        }
+        Author author = event.getAuthor();
+        target.authorNames.put(author.getId(), new String[]{author.getFirstName(), author.getLastName()});
+    }
+
+    private static final class Fact {
+        private final YearMonth month;
+        private final String category;
+        private final Long authorId;
+
+        private Fact(LocalDateTime datePosted, String category, Long authorId) {
+            this.month = datePosted == null ? null : YearMonth.from(datePosted);
+            this.category = category;
+            this.authorId = authorId;
+        }
+    }
+
+    private static final class Rollup {
+        private final Map<Long, Fact> facts = new ConcurrentHashMap<>();
+        private final Map<YearMonth, Long> byMonth = new ConcurrentHashMap<>();
+        private final Map<String, Long> byCategory = new ConcurrentHashMap<>();
+        private final Map<Long, Long> byAuthor = new ConcurrentHashMap<>();
+        private final Map<Long, String[]> authorNames = new ConcurrentHashMap<>();
+
+        private void add(long articleId, Fact fact) {
+            Fact previous = facts.put(articleId, fact);
+            if (previous != null) {
+                count(previous, -1);
+            }
+            count(fact, 1);
+        }
+
+        private void remove(long articleId) {
+            Fact previous = facts.remove(articleId);
+            if (previous != null) {
+                count(previous, -1);
+            }
+        }
+
+        private void count(Fact fact, long delta) {
+            adjust(byMonth, fact.month, delta);
+            adjust(byCategory, fact.category, delta);
+            adjust(byAuthor, fact.authorId, delta);
+        }
+
+        private static <K> void adjust(Map<K, Long> counts, K key, long delta) {
+            if (key != null) {
+                counts.compute(key, (k, count) -> {
+                    long updated = (count == null ? 0 : count) + delta;
+                    return updated == 0 ? null : updated;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.spankinfresh.blog.content;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import com.spankinfresh.blog.events.AuthorChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Keeps recently read articles as deflated response bodies in an {@link OffHeapContentStore}, so
+ * repeat reads of large articles neither query the database nor put the content on the heap.
+ * Entries are dropped whenever the article or its author changes. Changes made through another
+ * instance raise no event here, so entries are also not served once they are older than
+ * {@code blog.content-store.max-age-ms}, which bounds how stale a read can be.
+ */
+@Component
+public class ArticleBodyCache implements MeterBinder {
+
+    private final OffHeapContentStore store;
+    private final ObjectWriter writer;
+    private final Map<Long, Long> authorByArticle = new HashMap<>();
+    private final ConcurrentMap<Long, Long> storedAtNanos = new ConcurrentHashMap<>();
+    private final long maxAgeNanos;
+    private long generation;
+
+    public ArticleBodyCache(ObjectMapper objectMapper,
+                            @Value("${blog.content-store.capacity-bytes:67108864}") long capacityBytes,
+                            @Value("${blog.content-store.chunk-bytes:4096}") int chunkBytes,
+                            @Value("${blog.content-store.slab-bytes:1048576}") int slabBytes,
+                            @Value("${blog.content-store.max-age-ms:60000}") long maxAgeMillis) {
+        this.store = new OffHeapContentStore(capacityBytes, chunkBytes, slabBytes);
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+        this.writer = objectMapper.writer();
+    }
+
+    /**
+     * Looks up the stored response body for an article. The returned body holds a lease on
+     * off-heap memory that is released once it has been written, or when the current request
+     * completes if it never is.
+     */
+    public Optional<StoredArticle> find(long id) {
+        if (!store.isEnabled()) {
+            return Optional.empty();
+        }
+        Long storedAt = storedAtNanos.get(id);
+        if (storedAt == null || System.nanoTime() - storedAt > maxAgeNanos) {
+            // the caller reloads the article and remember() replaces the expired body
+            return Optional.empty();
+        }
+        OffHeapContentStore.Lease lease = store.acquire(id);
+        if (lease == null) {
+            return Optional.empty();
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.registerDestructionCallback(StoredArticle.class.getName() + "." + id, lease::close,
+                    RequestAttributes.SCOPE_REQUEST);
+        }
+        return Optional.of(new StoredArticle(lease));
+    }
+
+    /**
+     * Token to take before loading an article from the database and hand back to
+     * {@link #remember}, so a load that overlapped a change is not cached.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public void remember(BlogPost article, long loadedAtGeneration) {
+        if (!store.isEnabled()) {
+            return;
+        }
+        ExposedByteArrayOutputStream compressed = new ExposedByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(compressed, deflater)) {
+            writer.writeValue(out, Collections.singleton(article));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        synchronized (this) {
+            if (generation != loadedAtGeneration || !store.put(article.getId(), compressed.buffer(), compressed.size())) {
+                return;
+            }
+            storedAtNanos.put(article.getId(), System.nanoTime());
+            if (article.getAuthor() != null) {
+                authorByArticle.put(article.getId(), article.getAuthor().getId());
+            }
+        }
+    }
+
+    @EventListener
+    public synchronized void onArticleChanged(ArticleChangedEvent event) {
+        generation++;
+        store.remove(event.getArticleId());
+        storedAtNanos.remove(event.getArticleId());
+        authorByArticle.remove(event.getArticleId());
+    }
+
+    @EventListener
+    public synchronized void onAuthorChanged(AuthorChangedEvent event) {
+        generation++;
+        authorByArticle.entrySet().removeIf(entry -> {
+            if (entry.getValue() != event.getAuthorId()) {
+                return false;
+            }
+            store.remove(entry.getKey());
+            storedAtNanos.remove(entry.getKey());
+            return true;
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("blog.content.offheap.capacity", store, OffHeapContentStore::getCapacityBytes)
+                .description("Off-heap memory the article body cache may allocate")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("blog.content.offheap.allocated", store, OffHeapContentStore::getAllocatedBytes)
+                .description("Off-heap memory allocated for article bodies")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("blog.content.offheap.used", store, OffHeapContentStore::getUsedBytes)
+                .description("Off-heap memory holding article bodies")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("blog.content.offheap.entries", store, OffHeapContentStore::getEntryCount)
+                .description("Article bodies held off-heap")
+                .register(registry);
+        FunctionCounter.builder("blog.content.offheap.requests", store, OffHeapContentStore::getHits)
+                .description("Article body lookups")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("blog.content.offheap.requests", store, OffHeapContentStore::getMisses)
+                .description("Article body lookups")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("blog.content.offheap.evictions", store, OffHeapContentStore::getEvictions)
+                .description("Article bodies evicted to make room")
+                .register(registry);
+    }
+
+    private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.spankinfresh.blog.content;
+
+import java.io.Closeable;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Byte store outside the Java heap. Memory is reserved from the operating system in slabs that are
+ * split into fixed-size chunks; a value occupies as many chunks as it needs, wherever they are, so
+ * freed space is reused without compaction. When no chunk is free and no further slab may be
+ * allocated, the least recently read values are evicted.
+ * <p>
+ * Readers hold a {@link Lease} while they stream a value. A value that is evicted or replaced
+ * during that time keeps its chunks until the last lease is closed.
+ */
+public class OffHeapContentStore {
+
+    private final int chunkSize;
+    private final int chunksPerSlab;
+    private final ByteBuffer[] slabs;
+    private final int maxValueChunks;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private int slabCount;
+    private int[] freeChunks = new int[0];
+    private int freeCount;
+    private int usedChunks;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public OffHeapContentStore(long capacityBytes, int chunkSize, int slabSize) {
+        if (chunkSize <= 0 || slabSize < chunkSize) {
+            throw new IllegalArgumentException("Slab size must be at least one chunk");
+        }
+        this.chunkSize = chunkSize;
+        this.chunksPerSlab = slabSize / chunkSize;
+        this.slabs = new ByteBuffer[(int) Math.max(0, capacityBytes / ((long) chunksPerSlab * chunkSize))];
+        // one value may not take more than a quarter of the store, or it would flush everything else
+        this.maxValueChunks = slabs.length * chunksPerSlab / 4;
+    }
+
+    public boolean isEnabled() {
+        return slabs.length > 0;
+    }
+
+    /**
+     * Stores a copy of {@code length} bytes of {@code data}, replacing any previous value for the
+     * key. Returns false when the value is too large to be kept, or when the remaining space is
+     * held by open leases.
+     */
+    public synchronized boolean put(long key, byte[] data, int length) {
+        int needed = Math.max(1, (length + chunkSize - 1) / chunkSize);
+        if (needed > maxValueChunks) {
+            remove(key);
+            return false;
+        }
+        retire(entries.remove(key));
+        while (freeCount < needed) {
+            if (slabCount < slabs.length) {
+                allocateSlab();
+            } else if (!evictEldest()) {
+                return false;
+            }
+        }
+        int[] chunks = new int[needed];
+        for (int i = 0; i < needed; i++) {
+            int chunk = freeChunks[--freeCount];
+            int offset = i * chunkSize;
+            chunkBuffer(chunk).put(data, offset, Math.min(chunkSize, length - offset));
+            chunks[i] = chunk;
+        }
+        usedChunks += needed;
+        entries.put(key, new Entry(chunks, length));
+        return true;
+    }
+
+    /**
+     * Returns a lease on the value for the key, or null if it is not stored. The lease must be
+     * closed once the value has been read.
+     */
+    public synchronized Lease acquire(long key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        entry.references++;
+        return new Lease(entry);
+    }
+
+    public synchronized void remove(long key) {
+        retire(entries.remove(key));
+    }
+
+    public long getCapacityBytes() {
+        return (long) slabs.length * chunksPerSlab * chunkSize;
+    }
+
+    public synchronized long getAllocatedBytes() {
+        return (long) slabCount * chunksPerSlab * chunkSize;
+    }
+
+    public synchronized long getUsedBytes() {
+        return (long) usedChunks * chunkSize;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private void allocateSlab() {
+        slabs[slabCount] = ByteBuffer.allocateDirect(chunksPerSlab * chunkSize);
+        int[] grown = new int[freeChunks.length + chunksPerSlab];
+        System.arraycopy(freeChunks, 0, grown, 0, freeCount);
+        freeChunks = grown;
+        int first = slabCount * chunksPerSlab;
+        for (int chunk = first + chunksPerSlab - 1; chunk >= first; chunk--) {
+            freeChunks[freeCount++] = chunk;
+        }
+        slabCount++;
+    }
+
+    private boolean evictEldest() {
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        if (!eldest.hasNext()) {
+            return false;
+        }
+        Entry entry = eldest.next().getValue();
+        eldest.remove();
+        evictions++;
+        retire(entry);
+        return true;
+    }
+
+    private void retire(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        entry.retired = true;
+        if (entry.references == 0) {
+            free(entry);
+        }
+    }
+
+    private void free(Entry entry) {
+        if (freeChunks.length < freeCount + entry.chunks.length) {
+            int[] grown = new int[freeCount + entry.chunks.length];
+            System.arraycopy(freeChunks, 0, grown, 0, freeCount);
+            freeChunks = grown;
+        }
+        for (int chunk : entry.chunks) {
+            freeChunks[freeCount++] = chunk;
+        }
+        usedChunks -= entry.chunks.length;
+    }
+
+    private synchronized void release(Entry entry) {
+        entry.references--;
+        if (entry.references == 0 && entry.retired) {
+            free(entry);
+        }
+    }
+
+    private ByteBuffer chunkBuffer(int chunk) {
+        ByteBuffer buffer = slabs[chunk / chunksPerSlab].duplicate();
+        int offset = (chunk % chunksPerSlab) * chunkSize;
+        buffer.limit(offset + chunkSize).position(offset);
+        return buffer;
+    }
+
+    private static final class Entry {
+        private final int[] chunks;
+        private final int length;
+        private int references;
+        private boolean retired;
+
+        private Entry(int[] chunks, int length) {
+            this.chunks = chunks;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Read access to one stored value. Closing the lease more than once has no further effect.
+     */
+    public final class Lease implements Closeable {
+        private final Entry entry;
+        private boolean closed;
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        public int getLength() {
+            return entry.length;
+        }
+
+        /**
+         * Reads the value directly from off-heap memory.
+         */
+        public InputStream openStream() {
+            return new InputStream() {
+                private int position;
+
+                @Override
+                public int read() {
+                    byte[] single = new byte[1];
+                    return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+                }
+
+                @Override
+                public int read(byte[] target, int offset, int length) {
+                    if (position >= entry.length) {
+                        return -1;
+                    }
+                    int inChunk = position % chunkSize;
+                    int count = Math.min(length, Math.min(chunkSize - inChunk, entry.length - position));
+                    ByteBuffer chunk = chunkBuffer(entry.chunks[position / chunkSize]);
+                    chunk.position(chunk.position() + inChunk);
+                    chunk.get(target, offset, count);
+                    position += count;
+                    return count;
+                }
+
+                @Override
+                public int available() {
+                    return entry.length - position;
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            synchronized (OffHeapContentStore.this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            release(entry);
+        }
+    }
+}
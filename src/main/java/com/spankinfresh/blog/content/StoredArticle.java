@@ -0,0 +1,31 @@
+package com.spankinfresh.blog.content;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A cached {@code /api/articles/{id}} response body, written by {@link StoredArticleHttpMessageConverter}.
+ */
+public class StoredArticle {
+
+    private final OffHeapContentStore.Lease lease;
+
+    StoredArticle(OffHeapContentStore.Lease lease) {
+        this.lease = lease;
+    }
+
+    /**
+     * Inflates the body straight from off-heap memory into the output and releases the lease.
+     */
+    public void writeTo(OutputStream output) throws IOException {
+        Inflater inflater = new Inflater();
+        try (lease; InputStream input = new InflaterInputStream(lease.openStream(), inflater, 8192)) {
+            input.transferTo(output);
+        } finally {
+            inflater.end();
+        }
+    }
+}
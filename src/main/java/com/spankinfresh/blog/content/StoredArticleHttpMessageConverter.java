@@ -0,0 +1,42 @@
+package com.spankinfresh.blog.content;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link StoredArticle} bodies as JSON. Spring Boot registers converter beans ahead of the
+ * default Jackson converter.
+ */
+@Component
+public class StoredArticleHttpMessageConverter extends AbstractHttpMessageConverter<StoredArticle> {
+
+    public StoredArticleHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return StoredArticle.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected StoredArticle readInternal(Class<? extends StoredArticle> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Stored articles are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(StoredArticle article, HttpOutputMessage outputMessage) throws IOException {
+        article.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,40 @@
+package com.spankinfresh.blog.data;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+
+@Repository
+public class ArchiveJdbcTemplateRepository {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public Optional<long[]> getIdRange() {
+        return Optional.ofNullable(jdbcTemplate.query("select min(id) as low, max(id) as high from blog_post",
+                resultSet -> {
+                    resultSet.next();
+                    long high = resultSet.getLong("high");
+                    return resultSet.wasNull() ? null : new long[]{resultSet.getLong("low"), high};
+                }));
+    }
+
+    /**
+     * Date, category and author of the articles with ids from {@code fromId} up to, but not
+     * including, {@code toId}.
+     */
+    public void streamFacts(long fromId, long toId, RowCallbackHandler handler) {
+        jdbcTemplate.query("select p.id, p.date_posted, c.category_name, a.id as author_id, a.first_name, a.last_name " +
+                        "from blog_post p join category c on c.id = p.category_id join author a on a.id = p.author_id " +
+                        "where p.id >= ? and p.id < ? and p.published = true",
+                handler, fromId, toId);
+    }
+}
@@ -0,0 +1,68 @@
+package com.spankinfresh.blog.data;
+
+import com.spankinfresh.blog.domain.ArticleRevision;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public class ArticleRevisionJdbcTemplateRepository {
+
+    private static final String COLUMNS = "revision, created_at, title, category_name, snapshot, content_length";
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Revisions without their data, newest first.
+     */
+    public List<ArticleRevision> getRevisions(long articleId) {
+        return jdbcTemplate.query("select " + COLUMNS + ", octet_length(data) as stored_bytes from article_revision " +
+                        "where article_id = ? order by revision desc",
+                (resultsRow, rowNum) -> new ArticleRevision(articleId, resultsRow.getInt("revision"),
+                        resultsRow.getTimestamp("created_at").toLocalDateTime(), resultsRow.getString("title"),
+                        resultsRow.getString("category_name"), resultsRow.getBoolean("snapshot"),
+                        resultsRow.getInt("content_length"), resultsRow.getInt("stored_bytes")),
+                articleId);
+    }
+
+    /**
+     * The revisions needed to rebuild {@code upToRevision}: the closest snapshot at or before it and
+     * every delta after that, oldest first.
+     */
+    public List<ArticleRevision> getChain(long articleId, int upToRevision) {
+        return jdbcTemplate.query("select " + COLUMNS + ", data from article_revision " +
+                        "where article_id = ? and revision <= ? and revision >= coalesce((select max(revision) " +
+                        "from article_revision where article_id = ? and revision <= ? and snapshot = true), 0) " +
+                        "order by revision",
+                (resultsRow, rowNum) -> {
+                    byte[] data = resultsRow.getBytes("data");
+                    ArticleRevision revision = new ArticleRevision(articleId, resultsRow.getInt("revision"),
+                            resultsRow.getTimestamp("created_at").toLocalDateTime(), resultsRow.getString("title"),
+                            resultsRow.getString("category_name"), resultsRow.getBoolean("snapshot"),
+                            resultsRow.getInt("content_length"), data.length);
+                    revision.setData(data);
+                    return revision;
+                },
+                articleId, upToRevision, articleId, upToRevision);
+    }
+
+    public void insertRevision(ArticleRevision revision) {
+        jdbcTemplate.update("insert into article_revision (article_id, " + COLUMNS + ", data) values (?, ?, ?, ?, ?, ?, ?, ?)",
+                revision.getArticleId(), revision.getRevision(), Timestamp.valueOf(revision.getCreatedAt()),
+                revision.getTitle(), revision.getCategoryName(), revision.isSnapshot(), revision.getContentLength(),
+                revision.getData());
+    }
+
+    public void deleteRevisions(long articleId) {
+        jdbcTemplate.update("delete from article_revision where article_id = ?", articleId);
+    }
+}
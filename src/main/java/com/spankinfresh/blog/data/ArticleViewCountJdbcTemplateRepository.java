@@ -0,0 +1,87 @@
+package com.spankinfresh.blog.data;
+
+import com.spankinfresh.blog.domain.PopularArticle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class ArticleViewCountJdbcTemplateRepository {
+
+    private JdbcTemplate jdbcTemplate;
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    public Map<Long, Long> getAllViewCounts() {
+        Map<Long, Long> viewCounts = new HashMap<>();
+        jdbcTemplate.query("select article_id, views from article_view_count",
+                resultsRow -> {
+                    viewCounts.put(resultsRow.getLong("article_id"), resultsRow.getLong("views"));
+                });
+        return viewCounts;
+    }
+
+    /**
+     * Adds each delta to the stored count, creating rows for articles that have none yet. Updates
+     * and inserts commit together, so a failed flush can be retried without counting views twice.
+     */
+    @Transactional
+    public void addViewCounts(Map<Long, Long> deltas) {
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        deltas.forEach((articleId, delta) -> updates.add(new Object[]{delta, articleId}));
+        int[][] updated = jdbcTemplate.batchUpdate("update article_view_count set views = views + ? where article_id = ?",
+                updates, updates.size(), (statement, row) -> {
+                    statement.setLong(1, (Long) row[0]);
+                    statement.setLong(2, (Long) row[1]);
+                });
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            if (updated[0][i] == 0) {
+                inserts.add(new Object[]{updates.get(i)[1], updates.get(i)[0]});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into article_view_count (article_id, views) values (?, ?)", inserts);
+        }
+    }
+
+    public void deleteViewCount(long articleId) {
+        jdbcTemplate.update("delete from article_view_count where article_id = ?", articleId);
+    }
+
+    /**
+     * Summary fields for the given articles, keyed by id; unknown ids are left out.
+     */
+    public Map<Long, PopularArticle> getSummariesByIds(Collection<Long> articleIds) {
+        Map<Long, PopularArticle> summaries = new HashMap<>();
+        if (articleIds.isEmpty()) {
+            return summaries;
+        }
+        namedParameterJdbcTemplate.query("select p.id, p.title, c.category_name, p.date_posted from blog_post p " +
+                        "join category c on c.id = p.category_id where p.id in (:ids) and p.published = true",
+                new MapSqlParameterSource("ids", articleIds),
+                resultsRow -> {
+                    Timestamp datePosted = resultsRow.getTimestamp("date_posted");
+                    PopularArticle summary = new PopularArticle(resultsRow.getLong("id"), resultsRow.getString("title"),
+                            resultsRow.getString("category_name"), datePosted == null ? null : datePosted.toLocalDateTime(), 0);
+                    summaries.put(summary.getId(), summary);
+                });
+        return summaries;
+    }
+}
@@ -5,33 +5,127 @@ import com.spankinfresh.blog.domain.Category;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Repository
 public class BlogPostJdbcTemplateRepository {
 
+    /**
+     * Article fields a client can select, in the order they are returned, with the columns each
+     * one needs. The id is always returned.
+     */
+    private static final Map<String, String> FIELD_COLUMNS;
+
+    static {
+        Map<String, String> columns = new LinkedHashMap<>();
+        columns.put("category", "c.category_name");
+        columns.put("datePosted", "p.date_posted");
+        columns.put("publishAt", "p.publish_at");
+        columns.put("title", "p.title");
+        columns.put("slug", "p.slug");
+        columns.put("content", "p.content");
+        columns.put("author", "a.id as author_id, a.first_name, a.last_name, a.email_address");
+        FIELD_COLUMNS = Collections.unmodifiableMap(columns);
+    }
+
+    public static final Set<String> SELECTABLE_FIELDS = FIELD_COLUMNS.keySet();
+
     private JdbcTemplate jdbcTemplate;
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
     @Autowired
     public void setDataSource(DataSource dataSource) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
     }
 
     public List<BlogPost> getAllBlogPostingsOmittingContent() {
-        return jdbcTemplate.query("select id, title, category, date_posted from blog_post order by date_posted desc",
+        return jdbcTemplate.query("select p.id, p.title, c.category_name as category, p.date_posted from blog_post p " +
+                        "join category c on c.id = p.category_id where p.published = true order by p.date_posted desc",
                 BeanPropertyRowMapper.newInstance(BlogPost.class));
     }
 
     public List<Category> getCategoryList() {
-        return jdbcTemplate.query("select distinct category from blog_post order by category",
-                (resultsRow, rowNum) -> {
-                    Category category = new Category();
-                    category.setId(rowNum);
-                    category.setCategoryName(resultsRow.getString("category"));
-                    return category;
-                });
+        return jdbcTemplate.query("select c.id, c.category_name from category c " +
+                        "where exists (select 1 from blog_post p where p.category_id = c.id and p.published = true) order by c.category_name",
+                (resultsRow, rowNum) -> new Category(resultsRow.getLong("id"), resultsRow.getString("category_name")));
+    }
+
+    /**
+     * The published articles among {@code ids}, in the order asked for, with only the id and the
+     * requested fields. Only the columns, and joins, those fields need are selected.
+     */
+    public List<Map<String, Object>> getArticlesByIds(Collection<Long> ids, Set<String> fields) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        StringBuilder sql = new StringBuilder("select p.id");
+        FIELD_COLUMNS.forEach((field, columns) -> {
+            if (fields.contains(field)) {
+                sql.append(", ").append(columns);
+            }
+        });
+        sql.append(" from blog_post p");
+        if (fields.contains("category")) {
+            sql.append(" join category c on c.id = p.category_id");
+        }
+        if (fields.contains("author")) {
+            sql.append(" join author a on a.id = p.author_id");
+        }
+        sql.append(" where p.id in (:ids) and p.published = true");
+
+        Map<Long, Map<String, Object>> articles = new HashMap<>();
+        namedParameterJdbcTemplate.query(sql.toString(), new MapSqlParameterSource("ids", ids), resultsRow -> {
+            Map<String, Object> article = new LinkedHashMap<>();
+            long id = resultsRow.getLong("id");
+            article.put("id", id);
+            for (String field : FIELD_COLUMNS.keySet()) {
+                if (!fields.contains(field)) {
+                    continue;
+                }
+                switch (field) {
+                    case "category":
+                        article.put(field, resultsRow.getString("category_name"));
+                        break;
+                    case "datePosted":
+                    case "publishAt":
+                        Timestamp timestamp = resultsRow.getTimestamp(field.equals("datePosted") ? "date_posted" : "publish_at");
+                        article.put(field, timestamp == null ? null : timestamp.toLocalDateTime());
+                        break;
+                    case "author":
+                        Map<String, Object> author = new LinkedHashMap<>();
+                        author.put("id", resultsRow.getLong("author_id"));
+                        author.put("firstName", resultsRow.getString("first_name"));
+                        author.put("lastName", resultsRow.getString("last_name"));
+                        author.put("emailAddress", resultsRow.getString("email_address"));
+                        article.put(field, author);
+                        break;
+                    default:
+                        article.put(field, resultsRow.getString(field));
+                }
+            }
+            articles.put(id, article);
+        });
+        List<Map<String, Object>> ordered = new ArrayList<>(articles.size());
+        for (Long id : ids) {
+            Map<String, Object> article = articles.get(id);
+            if (article != null) {
+                ordered.add(article);
+            }
+        }
+        return ordered;
     }
 }
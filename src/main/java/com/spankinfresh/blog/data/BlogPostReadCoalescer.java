@@ -0,0 +1,51 @@
+package com.spankinfresh.blog.data;
+
+import com.spankinfresh.blog.domain.BlogPost;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Sits in front of the hot {@link BlogPostRepository} reads so that a burst of identical requests
+ * shares one database query instead of each issuing its own.
+ */
+@Component
+public class BlogPostReadCoalescer implements MeterBinder {
+
+    private final BlogPostRepository blogPostRepository;
+    private final SingleFlight<Long, Optional<BlogPost>> byId = new SingleFlight<>();
+    private final SingleFlight<Long, List<BlogPost>> byCategory = new SingleFlight<>();
+
+    public BlogPostReadCoalescer(BlogPostRepository blogPostRepository) {
+        this.blogPostRepository = blogPostRepository;
+    }
+
+    public Optional<BlogPost> findById(Long id) {
+        return byId.execute(id, () -> blogPostRepository.findById(id));
+    }
+
+    public List<BlogPost> findByCategoryIdOrderByDatePostedDesc(long categoryId) {
+        return byCategory.execute(categoryId, () -> blogPostRepository.findByCategoryRefIdOrderByDatePostedDesc(categoryId));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "findById", byId);
+        bind(registry, "findByCategory", byCategory);
+    }
+
+    private static void bind(MeterRegistry registry, String query, SingleFlight<?, ?> singleFlight) {
+        FunctionCounter.builder("blog.reads.executed", singleFlight, SingleFlight::getExecutedCount)
+                .description("Repository reads actually sent to the database")
+                .tag("query", query)
+                .register(registry);
+        FunctionCounter.builder("blog.reads.coalesced", singleFlight, SingleFlight::getCoalescedCount)
+                .description("Repository reads answered by joining an identical in-flight query")
+                .tag("query", query)
+                .register(registry);
+    }
+}
@@ -0,0 +1,85 @@
+package com.spankinfresh.blog.data;
+
+import com.spankinfresh.blog.domain.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory map between category names and their ids. Categories are never renamed or removed, so
+ * entries stay valid once cached; names this instance has not seen yet fall back to the database.
+ */
+@Component
+public class CategoryDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryDictionary.class);
+
+    private final CategoryRepository categoryRepository;
+    private final ConcurrentMap<String, Category> byName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Category> byId = new ConcurrentHashMap<>();
+
+    public CategoryDictionary(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            categoryRepository.findAll().forEach(this::remember);
+        } catch (DataAccessException e) {
+            log.warn("Could not preload categories; they will be looked up on demand", e);
+        }
+    }
+
+    public Optional<Category> findByName(String categoryName) {
+        Category category = byName.get(categoryName);
+        if (category != null) {
+            return Optional.of(category);
+        }
+        return categoryRepository.findByCategoryName(categoryName).map(this::remember);
+    }
+
+    public Optional<Category> findById(long id) {
+        Category category = byId.get(id);
+        if (category != null) {
+            return Optional.of(category);
+        }
+        return categoryRepository.findById(id).map(this::remember);
+    }
+
+    /**
+     * Returns the category with this name, creating it if it does not exist yet.
+     */
+    public Category resolve(String categoryName) {
+        Optional<Category> existing = findByName(categoryName);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        synchronized (this) {
+            existing = findByName(categoryName);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+            try {
+                return remember(categoryRepository.save(new Category(0L, categoryName)));
+            } catch (DataIntegrityViolationException e) {
+                // created concurrently by another instance
+                return findByName(categoryName).orElseThrow(() -> e);
+            }
+        }
+    }
+
+    private Category remember(Category category) {
+        byName.putIfAbsent(category.getCategoryName(), category);
+        byId.putIfAbsent(category.getId(), category);
+        return category;
+    }
+}
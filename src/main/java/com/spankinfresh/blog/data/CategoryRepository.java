@@ -0,0 +1,10 @@
+package com.spankinfresh.blog.data;
+
+import com.spankinfresh.blog.domain.Category;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Optional;
+
+public interface CategoryRepository extends CrudRepository<Category, Long> {
+    Optional<Category> findByCategoryName(String categoryName);
+}
@@ -0,0 +1,30 @@
+package com.spankinfresh.blog.data;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+@Repository
+public class RelatedArticlesJdbcTemplateRepository {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(100);
+    }
+
+    /**
+     * Every article with its text, one row at a time.
+     */
+    @Transactional(readOnly = true)
+    public void streamArticleText(RowCallbackHandler handler) {
+        jdbcTemplate.query("select p.id, p.title, c.category_name as category, p.date_posted, p.content from blog_post p " +
+                "join category c on c.id = p.category_id where p.published = true", handler);
+    }
+}
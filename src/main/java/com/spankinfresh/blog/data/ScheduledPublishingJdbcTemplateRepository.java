@@ -0,0 +1,104 @@
+package com.spankinfresh.blog.data;
+
+import com.spankinfresh.blog.domain.Author;
+import com.spankinfresh.blog.domain.BlogPost;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Queries for articles that are saved but not yet published. They are invisible to
+ * {@link BlogPostRepository}, which only maps published rows.
+ */
+@Repository
+public class ScheduledPublishingJdbcTemplateRepository {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public Map<Long, Timestamp> getPublishTimes() {
+        Map<Long, Timestamp> publishTimes = new LinkedHashMap<>();
+        jdbcTemplate.query("select id, publish_at from blog_post where published = false order by publish_at",
+                resultsRow -> {
+                    publishTimes.put(resultsRow.getLong("id"), resultsRow.getTimestamp("publish_at"));
+                });
+        return publishTimes;
+    }
+
+    public List<BlogPost> getScheduledOmittingContent() {
+        return jdbcTemplate.query("select p.id, p.title, c.category_name as category, p.date_posted, p.publish_at " +
+                        "from blog_post p join category c on c.id = p.category_id where p.published = false order by p.publish_at",
+                BeanPropertyRowMapper.newInstance(BlogPost.class));
+    }
+
+    /**
+     * Makes the article visible. Returns true if it is published now, whether by this call or
+     * earlier by another instance, and false if it no longer exists.
+     */
+    public boolean publish(long id) {
+        jdbcTemplate.update("update blog_post set published = true where id = ? and published = false", id);
+        return jdbcTemplate.queryForObject("select count(*) from blog_post where id = ? and published = true",
+                Integer.class, id) == 1;
+    }
+
+    public Optional<BlogPost> findArticle(long id) {
+        return findArticle("p.id = ?", id);
+    }
+
+    /**
+     * Finds the article only while it is still waiting to be published.
+     */
+    public Optional<BlogPost> findScheduled(long id) {
+        return findArticle("p.id = ? and p.published = false", id);
+    }
+
+    /**
+     * Replaces an article that is not yet published. Returns false if it has been published or
+     * deleted in the meantime.
+     */
+    public boolean updateScheduled(BlogPost article) {
+        Timestamp publishAt = Timestamp.valueOf(article.getPublishAt());
+        return jdbcTemplate.update("update blog_post set title = ?, slug = ?, content = ?, category_id = ?, author_id = ?, " +
+                        "publish_at = ?, date_posted = ? where id = ? and published = false",
+                article.getTitle(), article.getSlug(), article.getContent(), article.getCategoryRef().getId(),
+                article.getAuthor().getId(), publishAt, publishAt, article.getId()) == 1;
+    }
+
+    /**
+     * Deletes an article that is not yet published. Returns false if it has been published or
+     * deleted in the meantime.
+     */
+    public boolean deleteScheduled(long id) {
+        return jdbcTemplate.update("delete from blog_post where id = ? and published = false", id) == 1;
+    }
+
+    private Optional<BlogPost> findArticle(String condition, long id) {
+        return jdbcTemplate.query("select p.id, p.title, p.slug, c.category_name, p.date_posted, p.publish_at, p.content, " +
+                        "a.id as author_id, a.first_name, a.last_name, a.email_address from blog_post p " +
+                        "join category c on c.id = p.category_id join author a on a.id = p.author_id where " + condition,
+                (resultsRow, rowNum) -> {
+                    Timestamp datePosted = resultsRow.getTimestamp("date_posted");
+                    Timestamp publishAt = resultsRow.getTimestamp("publish_at");
+                    Author author = new Author(resultsRow.getLong("author_id"), resultsRow.getString("first_name"),
+                            resultsRow.getString("last_name"), resultsRow.getString("email_address"));
+                    BlogPost article = new BlogPost(resultsRow.getLong("id"), resultsRow.getString("category_name"),
+                            datePosted == null ? null : datePosted.toLocalDateTime(), resultsRow.getString("title"),
+                            resultsRow.getString("content"), author);
+                    article.setPublishAt(publishAt == null ? null : publishAt.toLocalDateTime());
+                    article.setSlug(resultsRow.getString("slug"));
+                    return article;
+                }, id).stream().findFirst();
+    }
+}
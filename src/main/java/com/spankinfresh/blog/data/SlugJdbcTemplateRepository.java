@@ -0,0 +1,90 @@
+package com.spankinfresh.blog.data;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+public class SlugJdbcTemplateRepository {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public Optional<long[]> getIdRange() {
+        return Optional.ofNullable(jdbcTemplate.query("select min(id) as low, max(id) as high from blog_post",
+                resultSet -> {
+                    resultSet.next();
+                    long high = resultSet.getLong("high");
+                    return resultSet.wasNull() ? null : new long[]{resultSet.getLong("low"), high};
+                }));
+    }
+
+    /**
+     * Slug, title and published flag of the articles with ids from {@code fromId} up to, but not
+     * including, {@code toId}. Unpublished articles are included so their slugs stay reserved.
+     */
+    public void streamSlugs(long fromId, long toId, RowCallbackHandler handler) {
+        jdbcTemplate.query("select id, slug, title, published from blog_post where id >= ? and id < ?",
+                handler, fromId, toId);
+    }
+
+    /**
+     * Id and published flag of the article holding {@code slug}, if any.
+     */
+    public void findSlug(String slug, RowCallbackHandler handler) {
+        jdbcTemplate.query("select id, published from blog_post where slug = ?", handler, slug);
+    }
+
+    /**
+     * The article {@code slug} redirects to and that article's current slug, if it is published.
+     */
+    public void findRedirect(String slug, RowCallbackHandler handler) {
+        jdbcTemplate.query("select r.article_id, p.slug from article_slug_redirect r join blog_post p on p.id = r.article_id " +
+                "where r.slug = ? and p.published = true", handler, slug);
+    }
+
+    public void streamRedirects(RowCallbackHandler handler) {
+        jdbcTemplate.query("select slug, article_id from article_slug_redirect", handler);
+    }
+
+    /**
+     * Stores slugs for articles saved before slugs existed; articles that meanwhile got one keep it.
+     * Returns how many were stored, which is fewer than asked for when another instance assigned
+     * some of these articles, or took one of these slugs, first.
+     */
+    public int assignSlugs(Map<Long, String> slugsById) {
+        int assigned = 0;
+        for (Map.Entry<Long, String> entry : slugsById.entrySet()) {
+            try {
+                assigned += jdbcTemplate.update("update blog_post set slug = ? where id = ? and slug is null",
+                        entry.getValue(), entry.getKey());
+            } catch (DuplicateKeyException e) {
+                // the next pass reads the slug the other instance stored
+            }
+        }
+        return assigned;
+    }
+
+    /**
+     * Records that {@code previousSlug} now redirects to the article, and that {@code currentSlug}
+     * no longer does in case the article is taking back a slug it had before.
+     */
+    public void addRedirect(String previousSlug, String currentSlug, long articleId) {
+        jdbcTemplate.update("delete from article_slug_redirect where slug = ?", currentSlug);
+        jdbcTemplate.update("insert into article_slug_redirect (slug, article_id) values (?, ?)", previousSlug, articleId);
+    }
+
+    public void deleteRedirects(long articleId) {
+        jdbcTemplate.update("delete from article_slug_redirect where article_id = ?", articleId);
+    }
+}
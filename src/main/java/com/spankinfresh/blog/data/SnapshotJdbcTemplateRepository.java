@@ -0,0 +1,42 @@
+package com.spankinfresh.blog.data;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+/**
+ * Full-table reads for the snapshot writer. Rows are handed to the callback one at a time; inside
+ * the read-only transaction the fetch size lets the driver use a cursor instead of loading every
+ * article body at once.
+ */
+@Repository
+public class SnapshotJdbcTemplateRepository {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(100);
+    }
+
+    /**
+     * Streams articles, then authors, then categories, all in one repeatable-read transaction so
+     * that every article's author and category are in the same snapshot as the article.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void streamAll(RowCallbackHandler articles, RowCallbackHandler authors, RowCallbackHandler categories) {
+        jdbcTemplate.query("select id, category_id, author_id, date_posted, title, content from blog_post where published = true order by id", articles);
+        jdbcTemplate.query("select id, first_name, last_name, email_address from author order by id", authors);
+        jdbcTemplate.query("select id, category_name from category order by id", categories);
+    }
+
+    public void ping() {
+        jdbcTemplate.queryForObject("select 1", Integer.class);
+    }
+}
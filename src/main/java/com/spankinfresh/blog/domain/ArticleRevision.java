@@ -0,0 +1,162 @@
+package com.spankinfresh.blog.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+
+/**
+ * One saved version of an article. {@code data} is either the deflated content ({@code snapshot})
+ * or a deflated delta against the previous revision. Content is only filled in when a single
+ * revision is requested.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"articleId", "revision"}))
+public class ArticleRevision {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonIgnore
+    private long id;
+
+    @Column(nullable = false)
+    private long articleId;
+
+    @Column(nullable = false)
+    private int revision;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false, length = 200)
+    private String title;
+
+    @Column(nullable = false, length = 200)
+    private String categoryName;
+
+    @Column(nullable = false)
+    private boolean snapshot;
+
+    @Column(nullable = false)
+    private int contentLength;
+
+    @Column(nullable = false, length = 16777216)
+    @JsonIgnore
+    private byte[] data;
+
+    @Transient
+    private int storedBytes;
+
+    @Transient
+    private String content;
+
+    public ArticleRevision() {
+    }
+
+    public ArticleRevision(long articleId, int revision, LocalDateTime createdAt, String title, String categoryName,
+                           boolean snapshot, int contentLength, int storedBytes) {
+        this.articleId = articleId;
+        this.revision = revision;
+        this.createdAt = createdAt;
+        this.title = title;
+        this.categoryName = categoryName;
+        this.snapshot = snapshot;
+        this.contentLength = contentLength;
+        this.storedBytes = storedBytes;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getArticleId() {
+        return articleId;
+    }
+
+    public void setArticleId(long articleId) {
+        this.articleId = articleId;
+    }
+
+    public int getRevision() {
+        return revision;
+    }
+
+    public void setRevision(int revision) {
+        this.revision = revision;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public int getContentLength() {
+        return contentLength;
+    }
+
+    public void setContentLength(int contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+
+    public int getStoredBytes() {
+        return storedBytes;
+    }
+
+    public void setStoredBytes(int storedBytes) {
+        this.storedBytes = storedBytes;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
@@ -0,0 +1,43 @@
+package com.spankinfresh.blog.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * A slug an article had before it was renamed. Requests for it are redirected to the current slug.
+ */
+@Entity
+public class ArticleSlugRedirect {
+
+    @Id
+    @Column(length = 100)
+    private String slug;
+
+    @Column(nullable = false)
+    private long articleId;
+
+    public ArticleSlugRedirect() {
+    }
+
+    public ArticleSlugRedirect(String slug, long articleId) {
+        this.slug = slug;
+        this.articleId = articleId;
+    }
+
+    public String getSlug() {
+        return slug;
+    }
+
+    public void setSlug(String slug) {
+        this.slug = slug;
+    }
+
+    public long getArticleId() {
+        return articleId;
+    }
+
+    public void setArticleId(long articleId) {
+        this.articleId = articleId;
+    }
+}
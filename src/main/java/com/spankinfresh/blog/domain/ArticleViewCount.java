@@ -0,0 +1,37 @@
+package com.spankinfresh.blog.domain;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+@Entity
+public class ArticleViewCount {
+
+    @Id
+    private long articleId;
+
+    private long views;
+
+    public ArticleViewCount() {
+    }
+
+    public ArticleViewCount(long articleId, long views) {
+        this.articleId = articleId;
+        this.views = views;
+    }
+
+    public long getArticleId() {
+        return articleId;
+    }
+
+    public void setArticleId(long articleId) {
+        this.articleId = articleId;
+    }
+
+    public long getViews() {
+        return views;
+    }
+
+    public void setViews(long views) {
+        this.views = views;
+    }
+}
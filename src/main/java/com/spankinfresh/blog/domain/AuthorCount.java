@@ -0,0 +1,51 @@
+package com.spankinfresh.blog.domain;
+
+public class AuthorCount {
+
+    private long authorId;
+    private String firstName;
+    private String lastName;
+    private long count;
+
+    public AuthorCount() {
+    }
+
+    public AuthorCount(long authorId, String firstName, String lastName, long count) {
+        this.authorId = authorId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.count = count;
+    }
+
+    public long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(long authorId) {
+        this.authorId = authorId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -1,5 +1,9 @@
 package com.spankinfresh.blog.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.hibernate.annotations.Where;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import javax.persistence.*;
@@ -8,6 +12,7 @@ import javax.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Entity
+@Where(clause = "published = true")
 public class BlogPost {
 
     @Id
@@ -16,17 +21,35 @@ public class BlogPost {
 
     @NotNull
     @Size(min = 1, max = 200, message = "Please enter a category name of up to 200 characters")
+    @Transient
     private String category;
 
+    @ManyToOne
+    @JoinColumn(name = "category_id", nullable = false)
+    @JsonIgnore
+    private Category categoryRef;
+
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
     private LocalDateTime datePosted;
 
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime publishAt;
+
+    @Column(nullable = false, columnDefinition = "boolean default true")
+    @JsonIgnore
+    private boolean published = true;
+
     @NotNull
     @Size(min = 1, max = 200, message = "Please enter a title up to 200 characters in length")
     private String title;
 
+    @Column(unique = true, length = 100)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String slug;
+
     @NotNull
     @Size(min = 1, max = 500000, message = "Content is required")
+    @JsonDeserialize(using = SizeLimitedStringDeserializer.class)
     private String content;
 
     @NotNull
@@ -61,6 +84,22 @@ public class BlogPost {
         this.category = category;
     }
 
+    public Category getCategoryRef() {
+        return categoryRef;
+    }
+
+    public void setCategoryRef(Category categoryRef) {
+        this.categoryRef = categoryRef;
+        if (categoryRef != null) {
+            this.category = categoryRef.getCategoryName();
+        }
+    }
+
+    @PostLoad
+    void loadCategoryName() {
+        this.category = categoryRef == null ? null : categoryRef.getCategoryName();
+    }
+
     public LocalDateTime getDatePosted() {
         return datePosted;
     }
@@ -69,6 +108,22 @@ public class BlogPost {
         this.datePosted = datePosted;
     }
 
+    public LocalDateTime getPublishAt() {
+        return publishAt;
+    }
+
+    public void setPublishAt(LocalDateTime publishAt) {
+        this.publishAt = publishAt;
+    }
+
+    public boolean isPublished() {
+        return published;
+    }
+
+    public void setPublished(boolean published) {
+        this.published = published;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -77,6 +132,14 @@ public class BlogPost {
         this.title = title;
     }
 
+    public String getSlug() {
+        return slug;
+    }
+
+    public void setSlug(String slug) {
+        this.slug = slug;
+    }
+
     public String getContent() {
         return content;
     }
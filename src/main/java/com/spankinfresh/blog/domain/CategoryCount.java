@@ -0,0 +1,31 @@
+package com.spankinfresh.blog.domain;
+
+public class CategoryCount {
+
+    private String category;
+    private long count;
+
+    public CategoryCount() {
+    }
+
+    public CategoryCount(String category, long count) {
+        this.category = category;
+        this.count = count;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
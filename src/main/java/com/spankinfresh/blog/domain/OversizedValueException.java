@@ -0,0 +1,23 @@
+package com.spankinfresh.blog.domain;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+/**
+ * Raised by {@link SizeLimitedStringDeserializer} when a string is longer than its {@code @Size} maximum.
+ */
+public class OversizedValueException extends MismatchedInputException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String validationMessage;
+
+    public OversizedValueException(JsonParser parser, String validationMessage) {
+        super(parser, validationMessage, String.class);
+        this.validationMessage = validationMessage;
+    }
+
+    public String getValidationMessage() {
+        return validationMessage;
+    }
+}
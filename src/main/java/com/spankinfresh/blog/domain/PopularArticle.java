@@ -0,0 +1,63 @@
+package com.spankinfresh.blog.domain;
+
+import java.time.LocalDateTime;
+
+public class PopularArticle {
+
+    private long id;
+    private String title;
+    private String category;
+    private LocalDateTime datePosted;
+    private long views;
+
+    public PopularArticle() {
+    }
+
+    public PopularArticle(long id, String title, String category, LocalDateTime datePosted, long views) {
+        this.id = id;
+        this.title = title;
+        this.category = category;
+        this.datePosted = datePosted;
+        this.views = views;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public LocalDateTime getDatePosted() {
+        return datePosted;
+    }
+
+    public void setDatePosted(LocalDateTime datePosted) {
+        this.datePosted = datePosted;
+    }
+
+    public long getViews() {
+        return views;
+    }
+
+    public void setViews(long views) {
+        this.views = views;
+    }
+}
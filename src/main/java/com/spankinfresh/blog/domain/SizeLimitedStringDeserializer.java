@@ -0,0 +1,55 @@
+package com.spankinfresh.blog.domain;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+import javax.validation.constraints.Size;
+import java.io.IOException;
+
+/**
+ * Enforces a property's {@code @Size} maximum while the JSON is being parsed, using the length of
+ * the parser's token buffer, so an oversized value is rejected before it is copied into a
+ * {@code String} and handed to bean validation. Jackson has no way to read a string token in
+ * pieces ({@code getText(Writer)} finishes the token first), so the value is still buffered once
+ * as characters; the request body limit in {@code blog.upload.max-request-bytes} bounds that.
+ */
+public class SizeLimitedStringDeserializer extends StdScalarDeserializer<String> implements ContextualDeserializer {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int maxLength;
+    private final String message;
+
+    public SizeLimitedStringDeserializer() {
+        this(Integer.MAX_VALUE, null);
+    }
+
+    private SizeLimitedStringDeserializer(int maxLength, String message) {
+        super(String.class);
+        this.maxLength = maxLength;
+        this.message = message;
+    }
+
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext context, BeanProperty property) {
+        Size size = property == null ? null : property.getAnnotation(Size.class);
+        if (size == null) {
+            return this;
+        }
+        return new SizeLimitedStringDeserializer(size.max(), size.message());
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.hasToken(JsonToken.VALUE_STRING) && parser.getTextLength() > maxLength) {
+            throw new OversizedValueException(parser, message);
+        }
+        return StringDeserializer.instance.deserialize(parser, context);
+    }
+}
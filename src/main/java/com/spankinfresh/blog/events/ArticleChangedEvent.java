@@ -0,0 +1,40 @@
+package com.spankinfresh.blog.events;
+
+import com.spankinfresh.blog.domain.BlogPost;
+
+/**
+ * Published after an article has been written to the database.
+ */
+public class ArticleChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final BlogPost article;
+
+    public ArticleChangedEvent(Type type, BlogPost article) {
+        this.type = type;
+        this.article = article;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public BlogPost getArticle() {
+        return article;
+    }
+
+    public long getArticleId() {
+        return article.getId();
+    }
+
+    /**
+     * The article without its content or author, matching the rows of {@code /api/summary/articles}.
+     */
+    public BlogPost getSummary() {
+        return new BlogPost(article.getId(), article.getCategory(), article.getDatePosted(), article.getTitle(), null, null);
+    }
+}
@@ -0,0 +1,239 @@
+package com.spankinfresh.blog.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Pushes article changes to server-sent event subscribers. Each change is serialized once and kept
+ * in a bounded ring buffer so that reconnecting clients can resume from their {@code Last-Event-ID}.
+ * Changes are numbered and handed out on a single thread, into a small queue per subscriber that
+ * a pool of send threads drains in order. A subscriber that stops reading only holds up its own
+ * queue; once that queue is full its connection is closed, and the client resumes from the
+ * history when it reconnects.
+ */
+@Component
+public class ArticleEventBroadcaster implements MeterBinder {
+
+    static final String RESET_EVENT = "reset";
+    private static final Logger log = LoggerFactory.getLogger(ArticleEventBroadcaster.class);
+
+    private final ObjectMapper objectMapper;
+    private final EventRingBuffer<SerializedEvent> history;
+    private final long emitterTimeoutMillis;
+    private final int subscriberQueueSize;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final LongAdder slowSubscribersDropped = new LongAdder();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "article-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService senders;
+
+    public ArticleEventBroadcaster(ObjectMapper objectMapper,
+                                   @Value("${blog.events.history-size:1024}") int historySize,
+                                   @Value("${blog.events.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+                                   @Value("${blog.events.subscriber-queue-size:64}") int subscriberQueueSize,
+                                   @Value("${blog.events.send-threads:8}") int sendThreads) {
+        this.objectMapper = objectMapper;
+        this.history = new EventRingBuffer<>(historySize);
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.subscriberQueueSize = subscriberQueueSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(sendThreads, runnable -> {
+            Thread thread = new Thread(runnable, "article-events-send-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Registers a new subscriber, first replaying everything after {@code lastEventId} if it is given.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        register(emitter, lastEventId);
+        return emitter;
+    }
+
+    void register(SseEmitter emitter, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscriber.close());
+        emitter.onTimeout(() -> subscriber.close());
+        emitter.onError(e -> subscriber.close());
+        dispatcher.execute(() -> {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            if (!subscriber.closed) {
+                subscribers.add(subscriber);
+            }
+        });
+    }
+
+    @EventListener
+    public void onArticleChanged(ArticleChangedEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event.getSummary());
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {} event for article {}", event.getType(), event.getArticleId(), e);
+            return;
+        }
+        String name = "article-" + event.getType().name().toLowerCase(Locale.ROOT);
+        dispatcher.execute(() -> {
+            EventRingBuffer.Entry<SerializedEvent> entry = history.append(new SerializedEvent(name, data));
+            for (Subscriber subscriber : subscribers) {
+                offer(subscriber, () -> toEvent(entry));
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${blog.events.heartbeat-ms:30000}")
+    public void sendHeartbeat() {
+        dispatcher.execute(() -> {
+            for (Subscriber subscriber : subscribers) {
+                offer(subscriber, () -> SseEmitter.event().comment("heartbeat"));
+            }
+        });
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("blog.events.subscribers", subscribers, Set::size)
+                .description("Open server-sent event connections")
+                .register(registry);
+        FunctionCounter.builder("blog.events.subscribers.dropped", slowSubscribersDropped, LongAdder::sum)
+                .description("Subscribers disconnected for not keeping up with the stream")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void replay(Subscriber subscriber, long lastEventId) {
+        List<EventRingBuffer.Entry<SerializedEvent>> missed = history.readAfter(lastEventId);
+        if (missed == null) {
+            // too far behind: the client has to reload the article list before following the stream
+            String resetId = Long.toString(history.getLastSequence());
+            subscriber.enqueue(() -> SseEmitter.event().id(resetId).name(RESET_EVENT).data(""));
+            return;
+        }
+        // the replay may be longer than the live queue allows; it is bounded by the history size
+        for (EventRingBuffer.Entry<SerializedEvent> entry : missed) {
+            subscriber.enqueue(() -> toEvent(entry));
+        }
+    }
+
+    private void offer(Subscriber subscriber, Supplier<SseEmitter.SseEventBuilder> event) {
+        if (subscriber.queued.get() >= subscriberQueueSize) {
+            slowSubscribersDropped.increment();
+            subscriber.close();
+            // ends the response; the client reconnects with its Last-Event-ID and replays the rest
+            subscriber.emitter.complete();
+            return;
+        }
+        subscriber.enqueue(event);
+    }
+
+    private static SseEmitter.SseEventBuilder toEvent(EventRingBuffer.Entry<SerializedEvent> entry) {
+        return SseEmitter.event()
+                .id(Long.toString(entry.getSequence()))
+                .name(entry.getValue().name)
+                .data(entry.getValue().data, MediaType.APPLICATION_JSON);
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Supplier<SseEmitter.SseEventBuilder>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void enqueue(Supplier<SseEmitter.SseEventBuilder> event) {
+            queued.incrementAndGet();
+            queue.add(event);
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Supplier<SseEmitter.SseEventBuilder> event = queue.poll();
+                if (event == null) {
+                    draining.set(false);
+                    // an event queued after the poll but before the flag was cleared needs a new drain
+                    if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                queued.decrementAndGet();
+                if (closed) {
+                    continue;
+                }
+                try {
+                    emitter.send(event.get());
+                } catch (IOException | IllegalStateException e) {
+                    // the container completes the async request itself once it notices the broken connection
+                    close();
+                }
+            }
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+
+    private static final class SerializedEvent {
+        private final String name;
+        private final String data;
+
+        SerializedEvent(String name, String data) {
+            this.name = name;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.spankinfresh.blog.events;
+
+import com.spankinfresh.blog.domain.Author;
+
+/**
+ * Published after an author has been written to the database. Anything holding copies of the
+ * author's name or email, such as rendered articles, should refresh them.
+ */
+public class AuthorChangedEvent {
+
+    public enum Type {
+        UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Author author;
+
+    public AuthorChangedEvent(Type type, Author author) {
+        this.type = type;
+        this.author = author;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Author getAuthor() {
+        return author;
+    }
+
+    public long getAuthorId() {
+        return author.getId();
+    }
+}
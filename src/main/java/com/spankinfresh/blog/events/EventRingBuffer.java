@@ -0,0 +1,85 @@
+package com.spankinfresh.blog.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size buffer of the most recent events, each stamped with a sequence number starting at 1.
+ * Appends and reads do not lock; a reader that falls more than {@code capacity} events behind is
+ * told so instead of receiving a partial history.
+ */
+public class EventRingBuffer<T> {
+
+    public static final class Entry<T> {
+        private final long sequence;
+        private final T value;
+
+        Entry(long sequence, T value) {
+            this.sequence = sequence;
+            this.value = value;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public T getValue() {
+            return value;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry<T>> slots;
+    private final AtomicLong lastSequence = new AtomicLong();
+
+    public EventRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public Entry<T> append(T value) {
+        long sequence = lastSequence.incrementAndGet();
+        Entry<T> entry = new Entry<>(sequence, value);
+        slots.set(slotOf(sequence), entry);
+        return entry;
+    }
+
+    public long getLastSequence() {
+        return lastSequence.get();
+    }
+
+    /**
+     * Returns the entries after {@code afterSequence} in order, or {@code null} if some of them have
+     * already been overwritten or {@code afterSequence} was never issued by this buffer (a client
+     * resuming after a restart, or from another instance).
+     */
+    public List<Entry<T>> readAfter(long afterSequence) {
+        long last = lastSequence.get();
+        if (afterSequence == last) {
+            return new ArrayList<>();
+        }
+        if (afterSequence > last || last - afterSequence > slots.length()) {
+            return null;
+        }
+        List<Entry<T>> entries = new ArrayList<>((int) (last - afterSequence));
+        for (long sequence = afterSequence + 1; sequence <= last; sequence++) {
+            Entry<T> entry = slots.get(slotOf(sequence));
+            if (entry == null || entry.getSequence() < sequence) {
+                // reserved by a writer that has not stored its entry yet; stop at the gap
+                break;
+            }
+            if (entry.getSequence() > sequence) {
+                return null;
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private int slotOf(long sequence) {
+        return (int) (sequence % slots.length());
+    }
+}
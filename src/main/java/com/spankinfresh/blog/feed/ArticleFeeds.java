@@ -0,0 +1,262 @@
+package com.spankinfresh.blog.feed;
+
+import com.spankinfresh.blog.data.BlogPostJdbcTemplateRepository;
+import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Serves RSS, Atom and sitemap documents from pre-rendered bytes. Article summaries are read from
+ * the database once, on the first feed request, and kept current from {@link ArticleChangedEvent}s
+ * after that. A change only discards the documents it affects: the global feeds, the feeds of the
+ * article's old and new category, and the one sitemap part that holds the article's id. Changes
+ * made through another instance raise no event here, so every {@code blog.feed.refresh-interval-ms}
+ * the summaries are read again and whatever differs is applied the same way.
+ */
+@Component
+public class ArticleFeeds {
+
+    static final int SITEMAP_PART_SIZE = 50_000;
+    private static final Comparator<BlogPost> NEWEST_FIRST = Comparator
+            .comparing(BlogPost::getDatePosted, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(BlogPost::getId, Comparator.reverseOrder());
+
+    private final BlogPostJdbcTemplateRepository blogPostJdbcTemplateRepository;
+    private final FeedWriter feedWriter;
+    private final String baseUrl;
+    private final int feedSize;
+
+    private final NavigableMap<Long, BlogPost> articlesById = new ConcurrentSkipListMap<>();
+    private final NavigableSet<BlogPost> newestFirst = new ConcurrentSkipListSet<>(NEWEST_FIRST);
+    private final ConcurrentMap<String, RenderedDocument> rendered = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private Set<Long> changedDuringRefresh;
+    private long lastChange = System.currentTimeMillis();
+
+    public ArticleFeeds(BlogPostJdbcTemplateRepository blogPostJdbcTemplateRepository,
+                        @Value("${blog.public-base-url:http://localhost:3000}") String baseUrl,
+                        @Value("${blog.feed.article-path:/articles/{id}}") String articlePath,
+                        @Value("${blog.feed.title:SpankinFresh Farm Market Food Blog}") String feedTitle,
+                        @Value("${blog.feed.size:20}") int feedSize) {
+        this.blogPostJdbcTemplateRepository = blogPostJdbcTemplateRepository;
+        this.baseUrl = baseUrl;
+        this.feedWriter = new FeedWriter(baseUrl, articlePath, feedTitle);
+        this.feedSize = feedSize;
+    }
+
+    public Optional<RenderedDocument> rss(String category) {
+        return feed("rss", category);
+    }
+
+    public Optional<RenderedDocument> atom(String category) {
+        return feed("atom", category);
+    }
+
+    /**
+     * The sitemap index, listing one part per block of {@value #SITEMAP_PART_SIZE} article ids.
+     */
+    public RenderedDocument sitemapIndex() {
+        ensureLoaded();
+        RenderedDocument document = rendered.get("sitemap");
+        if (document != null) {
+            return document;
+        }
+        synchronized (this) {
+            return rendered.computeIfAbsent("sitemap", key -> {
+                NavigableSet<Integer> parts = new TreeSet<>();
+                for (Long id : articlesById.keySet()) {
+                    parts.add(partOf(id));
+                }
+                return new RenderedDocument(feedWriter.sitemapIndex(parts, baseUrl + "/sitemap-%d.xml", lastChange), lastChange);
+            });
+        }
+    }
+
+    public Optional<RenderedDocument> sitemapPart(int part) {
+        if (part < 0) {
+            return Optional.empty();
+        }
+        ensureLoaded();
+        String key = "sitemap-" + part;
+        RenderedDocument document = rendered.get(key);
+        if (document != null) {
+            return Optional.of(document);
+        }
+        synchronized (this) {
+            long from = (long) part * SITEMAP_PART_SIZE;
+            Map<Long, BlogPost> partArticles = articlesById.subMap(from, true, from + SITEMAP_PART_SIZE, false);
+            if (partArticles.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(rendered.computeIfAbsent(key, ignored ->
+                    new RenderedDocument(feedWriter.sitemap(partArticles.values()), lastChange)));
+        }
+    }
+
+    @EventListener
+    public synchronized void onArticleChanged(ArticleChangedEvent event) {
+        if (!loaded) {
+            // nothing rendered yet; the first request reads the current state from the database
+            return;
+        }
+        if (changedDuringRefresh != null) {
+            changedDuringRefresh.add(event.getArticleId());
+        }
+        replace(event.getArticleId(), event.getType() == ArticleChangedEvent.Type.DELETED ? null : event.getSummary());
+        lastChange = System.currentTimeMillis();
+    }
+
+    @Scheduled(initialDelayString = "${blog.feed.refresh-interval-ms:300000}",
+            fixedDelayString = "${blog.feed.refresh-interval-ms:300000}")
+    public void refresh() {
+        if (!loaded) {
+            return;
+        }
+        synchronized (this) {
+            changedDuringRefresh = new HashSet<>();
+        }
+        try {
+            Map<Long, BlogPost> summaries = new HashMap<>();
+            for (BlogPost summary : blogPostJdbcTemplateRepository.getAllBlogPostingsOmittingContent()) {
+                summaries.put(summary.getId(), summary);
+            }
+            synchronized (this) {
+                // an event that arrived after the read is newer than what the read returned
+                boolean changed = false;
+                for (Long id : new ArrayList<>(articlesById.keySet())) {
+                    if (!summaries.containsKey(id) && !changedDuringRefresh.contains(id)) {
+                        replace(id, null);
+                        changed = true;
+                    }
+                }
+                for (BlogPost summary : summaries.values()) {
+                    if (!changedDuringRefresh.contains(summary.getId()) && !sameSummary(articlesById.get(summary.getId()), summary)) {
+                        replace(summary.getId(), summary);
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    lastChange = System.currentTimeMillis();
+                }
+            }
+        } finally {
+            synchronized (this) {
+                changedDuringRefresh = null;
+            }
+        }
+    }
+
+    private Optional<RenderedDocument> feed(String format, String category) {
+        ensureLoaded();
+        String key = category == null ? format : format + ":" + category;
+        RenderedDocument document = rendered.get(key);
+        if (document != null) {
+            return Optional.of(document);
+        }
+        // rendering holds the same lock as event handling, so a document is never cached from stale state
+        synchronized (this) {
+            document = rendered.get(key);
+            if (document != null) {
+                return Optional.of(document);
+            }
+            List<BlogPost> articles = newest(category);
+            if (category != null && articles.isEmpty()) {
+                return Optional.empty();
+            }
+            String selfUrl = UriComponentsBuilder.fromHttpUrl(baseUrl).path("/api/feeds/" + format)
+                    .queryParamIfPresent("category", Optional.ofNullable(category)).encode().toUriString();
+            byte[] body = "rss".equals(format)
+                    ? feedWriter.rss(category, articles, selfUrl)
+                    : feedWriter.atom(category, articles, selfUrl, lastChange);
+            document = new RenderedDocument(body, lastChange);
+            rendered.put(key, document);
+            return Optional.of(document);
+        }
+    }
+
+    private void replace(long articleId, BlogPost summary) {
+        BlogPost previous = articlesById.remove(articleId);
+        if (previous != null) {
+            newestFirst.remove(previous);
+            invalidate(previous);
+        }
+        if (summary != null) {
+            articlesById.put(summary.getId(), summary);
+            newestFirst.add(summary);
+            invalidate(summary);
+        }
+    }
+
+    private static boolean sameSummary(BlogPost current, BlogPost summary) {
+        return current != null
+                && Objects.equals(current.getTitle(), summary.getTitle())
+                && Objects.equals(current.getCategory(), summary.getCategory())
+                && Objects.equals(current.getDatePosted(), summary.getDatePosted());
+    }
+
+    private List<BlogPost> newest(String category) {
+        List<BlogPost> articles = new ArrayList<>(feedSize);
+        for (BlogPost article : newestFirst) {
+            if (category == null || category.equals(article.getCategory())) {
+                articles.add(article);
+                if (articles.size() == feedSize) {
+                    break;
+                }
+            }
+        }
+        return articles;
+    }
+
+    private void invalidate(BlogPost article) {
+        rendered.remove("rss");
+        rendered.remove("atom");
+        rendered.remove("rss:" + article.getCategory());
+        rendered.remove("atom:" + article.getCategory());
+        rendered.remove("sitemap");
+        rendered.remove("sitemap-" + partOf(article.getId()));
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            Map<Long, BlogPost> summaries = new HashMap<>();
+            for (BlogPost summary : blogPostJdbcTemplateRepository.getAllBlogPostingsOmittingContent()) {
+                summaries.put(summary.getId(), summary);
+            }
+            articlesById.putAll(summaries);
+            newestFirst.addAll(summaries.values());
+            lastChange = System.currentTimeMillis();
+            loaded = true;
+        }
+    }
+
+    private static int partOf(long articleId) {
+        return (int) (articleId / SITEMAP_PART_SIZE);
+    }
+}
@@ -0,0 +1,178 @@
+package com.spankinfresh.blog.feed;
+
+import com.spankinfresh.blog.domain.BlogPost;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes RSS 2.0, Atom 1.0 and sitemap protocol documents for article summaries.
+ */
+class FeedWriter {
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+    private static final String ATOM_NAMESPACE = "http://www.w3.org/2005/Atom";
+    private static final String SITEMAP_NAMESPACE = "http://www.sitemaps.org/schemas/sitemap/0.9";
+
+    private final String baseUrl;
+    private final String articlePath;
+    private final String feedTitle;
+
+    FeedWriter(String baseUrl, String articlePath, String feedTitle) {
+        this.baseUrl = baseUrl;
+        this.articlePath = articlePath;
+        this.feedTitle = feedTitle;
+    }
+
+    byte[] rss(String category, List<BlogPost> articles, String selfUrl) {
+        return write(xml -> {
+            xml.writeStartElement("rss");
+            xml.writeAttribute("version", "2.0");
+            xml.writeNamespace("atom", ATOM_NAMESPACE);
+            xml.writeStartElement("channel");
+            element(xml, "title", titleOf(category));
+            element(xml, "link", baseUrl);
+            element(xml, "description", titleOf(category));
+            xml.writeEmptyElement("atom", "link", ATOM_NAMESPACE);
+            xml.writeAttribute("href", selfUrl);
+            xml.writeAttribute("rel", "self");
+            xml.writeAttribute("type", "application/rss+xml");
+            if (!articles.isEmpty() && articles.get(0).getDatePosted() != null) {
+                element(xml, "lastBuildDate", rfc1123(articles.get(0).getDatePosted()));
+            }
+            for (BlogPost article : articles) {
+                xml.writeStartElement("item");
+                element(xml, "title", article.getTitle());
+                element(xml, "link", linkTo(article));
+                xml.writeStartElement("guid");
+                xml.writeAttribute("isPermaLink", "true");
+                xml.writeCharacters(linkTo(article));
+                xml.writeEndElement();
+                element(xml, "category", article.getCategory());
+                if (article.getDatePosted() != null) {
+                    element(xml, "pubDate", rfc1123(article.getDatePosted()));
+                }
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+            xml.writeEndElement();
+        });
+    }
+
+    byte[] atom(String category, List<BlogPost> articles, String selfUrl, long updated) {
+        return write(xml -> {
+            xml.setDefaultNamespace(ATOM_NAMESPACE);
+            xml.writeStartElement("feed");
+            xml.writeDefaultNamespace(ATOM_NAMESPACE);
+            element(xml, "id", selfUrl);
+            element(xml, "title", titleOf(category));
+            element(xml, "updated", DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(updated)));
+            link(xml, selfUrl, "self");
+            link(xml, baseUrl, "alternate");
+            for (BlogPost article : articles) {
+                xml.writeStartElement("entry");
+                element(xml, "id", linkTo(article));
+                element(xml, "title", article.getTitle());
+                link(xml, linkTo(article), "alternate");
+                String timestamp = article.getDatePosted() == null
+                        ? DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(updated))
+                        : iso(article.getDatePosted());
+                element(xml, "published", timestamp);
+                element(xml, "updated", timestamp);
+                xml.writeEmptyElement("category");
+                xml.writeAttribute("term", article.getCategory());
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        });
+    }
+
+    byte[] sitemap(Collection<BlogPost> articles) {
+        return write(xml -> {
+            xml.setDefaultNamespace(SITEMAP_NAMESPACE);
+            xml.writeStartElement("urlset");
+            xml.writeDefaultNamespace(SITEMAP_NAMESPACE);
+            for (BlogPost article : articles) {
+                xml.writeStartElement("url");
+                element(xml, "loc", linkTo(article));
+                if (article.getDatePosted() != null) {
+                    element(xml, "lastmod", iso(article.getDatePosted()));
+                }
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        });
+    }
+
+    byte[] sitemapIndex(Collection<Integer> parts, String partUrlPattern, long lastModified) {
+        return write(xml -> {
+            xml.setDefaultNamespace(SITEMAP_NAMESPACE);
+            xml.writeStartElement("sitemapindex");
+            xml.writeDefaultNamespace(SITEMAP_NAMESPACE);
+            for (Integer part : parts) {
+                xml.writeStartElement("sitemap");
+                element(xml, "loc", String.format(partUrlPattern, part));
+                element(xml, "lastmod", DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(lastModified)));
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        });
+    }
+
+    private String titleOf(String category) {
+        return category == null ? feedTitle : feedTitle + " - " + category;
+    }
+
+    private String linkTo(BlogPost article) {
+        return baseUrl + articlePath.replace("{id}", Long.toString(article.getId()));
+    }
+
+    private static void element(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(text == null ? "" : text);
+        xml.writeEndElement();
+    }
+
+    private static void link(XMLStreamWriter xml, String href, String rel) throws XMLStreamException {
+        xml.writeEmptyElement("link");
+        xml.writeAttribute("href", href);
+        xml.writeAttribute("rel", rel);
+    }
+
+    private static String rfc1123(LocalDateTime dateTime) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.of(dateTime, ZoneId.systemDefault()));
+    }
+
+    private static String iso(LocalDateTime dateTime) {
+        return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(ZonedDateTime.of(dateTime, ZoneId.systemDefault()).withNano(0));
+    }
+
+    private static byte[] write(XmlBody body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        try {
+            XMLStreamWriter xml = OUTPUT_FACTORY.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            body.write(xml);
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Could not render XML document", e);
+        }
+        return out.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface XmlBody {
+        void write(XMLStreamWriter xml) throws XMLStreamException;
+    }
+}
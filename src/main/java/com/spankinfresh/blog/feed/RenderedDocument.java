@@ -0,0 +1,31 @@
+package com.spankinfresh.blog.feed;
+
+import org.springframework.util.DigestUtils;
+
+/**
+ * An XML document rendered once and served as-is until the articles behind it change.
+ */
+public class RenderedDocument {
+
+    private final byte[] body;
+    private final String etag;
+    private final long lastModified;
+
+    public RenderedDocument(byte[] body, long lastModified) {
+        this.body = body;
+        this.etag = '"' + DigestUtils.md5DigestAsHex(body) + '"';
+        this.lastModified = lastModified;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+}
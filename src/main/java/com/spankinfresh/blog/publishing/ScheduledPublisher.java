@@ -0,0 +1,123 @@
+package com.spankinfresh.blog.publishing;
+
+import com.spankinfresh.blog.data.ScheduledPublishingJdbcTemplateRepository;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes articles saved with a future {@code publishAt}. Pending articles sit in a
+ * {@link TimingWheel} that a single thread advances every tick; when one comes due its row is
+ * flipped to published and a {@link ArticleChangedEvent.Type#CREATED} event is raised, so caches
+ * and indexes pick it up exactly as if it had just been posted. Every instance raises the event
+ * for its own caches, including those that find the row already flipped by another instance, and
+ * a retry after a listener failed raises it again for the same reason. The database is the
+ * durable schedule: the wheel is refilled from unpublished rows at startup, and
+ * updating or deleting an unpublished article moves it in the wheel or takes it out.
+ */
+@Component
+public class ScheduledPublisher implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduledPublisher.class);
+    private static final long RETRY_MILLIS = 5000;
+
+    private final ScheduledPublishingJdbcTemplateRepository publishingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long tickMillis;
+    private final TimingWheel<Long> wheel;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scheduled-publishing");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ScheduledPublisher(ScheduledPublishingJdbcTemplateRepository publishingRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${blog.publishing.tick-ms:100}") long tickMillis) {
+        this.publishingRepository = publishingRepository;
+        this.eventPublisher = eventPublisher;
+        this.tickMillis = tickMillis;
+        this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            Map<Long, Timestamp> publishTimes = publishingRepository.getPublishTimes();
+            synchronized (this) {
+                publishTimes.forEach((id, publishAt) ->
+                        wheel.schedule(publishAt == null ? 0 : publishAt.getTime(), id));
+            }
+            log.info("{} articles are scheduled for publishing", publishTimes.size());
+        } catch (DataAccessException e) {
+            log.warn("Could not load scheduled articles; they will be published after the next restart", e);
+        }
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publishes the article at {@code publishAt}, replacing the time it was scheduled for before.
+     */
+    public synchronized void schedule(long articleId, LocalDateTime publishAt) {
+        wheel.schedule(publishAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), articleId);
+    }
+
+    public synchronized void cancel(long articleId) {
+        wheel.cancel(articleId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("blog.publishing.scheduled", this, publisher -> publisher.pending())
+                .description("Articles waiting for their publish time")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private synchronized int pending() {
+        return wheel.size();
+    }
+
+    private void tick() {
+        List<Long> due;
+        synchronized (this) {
+            due = wheel.advanceTo(System.currentTimeMillis());
+        }
+        for (Long id : due) {
+            try {
+                if (publishingRepository.publish(id)) {
+                    publishingRepository.findArticle(id).ifPresent(article ->
+                            eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.CREATED, article)));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not publish article {}; retrying", id, e);
+                synchronized (this) {
+                    wheel.schedule(System.currentTimeMillis() + RETRY_MILLIS, id);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.spankinfresh.blog.publishing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel. Level 0 has one slot per tick; each level above covers 64 times the
+ * span of the one below, so six levels of 64 slots reach years ahead at a fixed memory cost.
+ * Scheduling is a slot append, and a tick only touches the slot that is due, plus the slots of
+ * higher levels whose turn has come; their entries cascade down to finer slots. An item is in the
+ * wheel at most once: scheduling it again moves it, and a cancelled entry is only marked and is
+ * dropped when its slot is next visited. Not thread-safe; callers synchronize.
+ */
+final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final List<List<Entry<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final List<Entry<T>> overdue = new ArrayList<>();
+    private final Map<T, Entry<T>> scheduled = new HashMap<>();
+    private long currentTick;
+
+    TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>(0));
+        }
+    }
+
+    /**
+     * Adds an item that becomes due on the first tick at or after {@code deadlineMillis}. Items
+     * whose deadline has already passed are due on the next advance. An item that is already
+     * scheduled is moved to the new deadline.
+     */
+    void schedule(long deadlineMillis, T item) {
+        cancel(item);
+        long tick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        Entry<T> entry = new Entry<>(Math.min(tick, currentTick + MAX_DELTA), tick, item);
+        if (tick <= currentTick) {
+            overdue.add(entry);
+        } else {
+            place(entry);
+        }
+        scheduled.put(item, entry);
+    }
+
+    /**
+     * Takes the item out of the wheel. Returns false if it was not scheduled.
+     */
+    boolean cancel(T item) {
+        Entry<T> entry = scheduled.remove(item);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and returns the items that became due, in
+     * deadline order.
+     */
+    List<T> advanceTo(long nowMillis) {
+        List<T> due = new ArrayList<>();
+        collect(overdue, due);
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            int topLevel = 0;
+            while (topLevel + 1 < LEVELS && (currentTick & ((1L << (SLOT_BITS * (topLevel + 1))) - 1)) == 0) {
+                topLevel++;
+            }
+            for (int level = topLevel; level >= 1; level--) {
+                cascade(level);
+            }
+            collect(slot(0, (int) (currentTick & SLOT_MASK)), due);
+        }
+        return due;
+    }
+
+    int size() {
+        return scheduled.size();
+    }
+
+    private void collect(List<Entry<T>> slot, List<T> due) {
+        for (Entry<T> entry : slot) {
+            if (!entry.cancelled) {
+                scheduled.remove(entry.item);
+                due.add(entry.item);
+            }
+        }
+        slot.clear();
+    }
+
+    private void cascade(int level) {
+        List<Entry<T>> slot = slot(level, (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Entry<T>> entries = new ArrayList<>(slot);
+        slot.clear();
+        for (Entry<T> entry : entries) {
+            if (entry.cancelled) {
+                continue;
+            }
+            if (entry.placedTick < entry.tick) {
+                // was beyond the wheel's reach when scheduled; place it again from here
+                entry.placedTick = Math.min(entry.tick, currentTick + MAX_DELTA);
+            }
+            place(entry);
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.placedTick - currentTick;
+        int level = 0;
+        while (level + 1 < LEVELS && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        slot(level, (int) ((entry.placedTick >>> (SLOT_BITS * level)) & SLOT_MASK)).add(entry);
+    }
+
+    private List<Entry<T>> slot(int level, int index) {
+        return slots.get(level * SLOTS + index);
+    }
+
+    private static final class Entry<T> {
+        private long placedTick;
+        private final long tick;
+        private final T item;
+        private boolean cancelled;
+
+        private Entry(long placedTick, long tick, T item) {
+            this.placedTick = placedTick;
+            this.tick = tick;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.spankinfresh.blog.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the number of in-flight database-bound requests. The cap grows by one after a full cap's
+ * worth of healthy completions and shrinks by 10% whenever latency climbs to twice its long-run
+ * average, so the application starts refusing work while the connection pool still has headroom
+ * instead of queueing every caller on it.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final int BASELINE_SMOOTHING = 100;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger healthyCompletions = new AtomicInteger();
+    private final AtomicLong baselineLatencyNanos = new AtomicLong();
+
+    public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = new AtomicInteger(maxLimit);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        long baseline = updateBaseline(latencyNanos);
+        if (latencyNanos > baseline * LATENCY_TOLERANCE) {
+            healthyCompletions.set(0);
+            limit.updateAndGet(current -> Math.max(minLimit, (int) (current * BACKOFF_RATIO)));
+        } else if (healthyCompletions.incrementAndGet() >= limit.get()) {
+            healthyCompletions.set(0);
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private long updateBaseline(long latencyNanos) {
+        return baselineLatencyNanos.updateAndGet(baseline ->
+                baseline == 0 ? latencyNanos : baseline + (latencyNanos - baseline) / BASELINE_SMOOTHING);
+    }
+}
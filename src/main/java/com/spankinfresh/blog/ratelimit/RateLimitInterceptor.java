@@ -0,0 +1,151 @@
+package com.spankinfresh.blog.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@link RateLimited} to the handler methods that carry it. Clients are told apart by the
+ * address the request came from, or, behind {@code blog.rate-limit.trusted-proxy-hops} proxies,
+ * by the {@code X-Forwarded-For} entry the outermost of those proxies added. Entries to the left
+ * of that one are whatever the client chose to send and are never used. Left at 0 behind a proxy,
+ * every client shares the proxy's address and with it one bucket, so the per-client limits act as
+ * limits on the whole site.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String ACQUIRED_AT_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".acquiredAt";
+    private static final String OVERFLOW_CLIENT = "|overflow";
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ConcurrentMap<String, TokenBucket> endpointBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final int trustedProxyHops;
+    private final int maxTrackedClients;
+
+    public RateLimitInterceptor(MeterRegistry meterRegistry,
+                                @Value("${blog.rate-limit.min-concurrency:2}") int minConcurrency,
+                                @Value("${blog.rate-limit.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrency,
+                                @Value("${blog.rate-limit.trusted-proxy-hops:0}") int trustedProxyHops,
+                                @Value("${blog.rate-limit.max-tracked-clients:100000}") int maxTrackedClients) {
+        this.meterRegistry = meterRegistry;
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(minConcurrency, maxConcurrency);
+        this.trustedProxyHops = trustedProxyHops;
+        this.maxTrackedClients = maxTrackedClients;
+        Gauge.builder("blog.requests.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current cap on in-flight database-bound requests")
+                .register(meterRegistry);
+        Gauge.builder("blog.requests.concurrency.in-flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("In-flight database-bound requests")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        RateLimited limits = handlerMethod.getMethodAnnotation(RateLimited.class);
+        if (limits == null) {
+            return true;
+        }
+        String endpoint = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        long now = System.nanoTime();
+
+        // the client is checked first so that a throttled client cannot use up the endpoint's budget
+        TokenBucket clientBucket = clientBucketFor(endpoint, clientOf(request), limits, now);
+        long clientWaitNanos = clientBucket.tryAcquire(now);
+        if (clientWaitNanos > 0) {
+            return reject(response, endpoint, "client_rate", HttpStatus.TOO_MANY_REQUESTS, clientWaitNanos);
+        }
+
+        if (limits.endpointPermitsPerSecond() > 0) {
+            TokenBucket bucket = endpointBuckets.computeIfAbsent(endpoint,
+                    key -> new TokenBucket(limits.endpointPermitsPerSecond(), Math.max(1, limits.endpointBurst()), now));
+            long waitNanos = bucket.tryAcquire(now);
+            if (waitNanos > 0) {
+                clientBucket.refund(now);
+                return reject(response, endpoint, "endpoint_rate", HttpStatus.TOO_MANY_REQUESTS, waitNanos);
+            }
+        }
+
+        if (limits.databaseBound()) {
+            if (!concurrencyLimiter.tryAcquire()) {
+                return reject(response, endpoint, "overload", HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1));
+            }
+            request.setAttribute(ACQUIRED_AT_ATTRIBUTE, now);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object acquiredAt = request.getAttribute(ACQUIRED_AT_ATTRIBUTE);
+        if (acquiredAt != null) {
+            request.removeAttribute(ACQUIRED_AT_ATTRIBUTE);
+            concurrencyLimiter.release(System.nanoTime() - (Long) acquiredAt);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${blog.rate-limit.cleanup-interval-ms:60000}")
+    public void evictIdleClients() {
+        long now = System.nanoTime();
+        clientBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    /**
+     * Once {@code blog.rate-limit.max-tracked-clients} clients are tracked, clients without a bucket of
+     * their own share one overflow bucket per endpoint until idle buckets are evicted, so a flood of
+     * new addresses is throttled as a group rather than not at all.
+     */
+    private TokenBucket clientBucketFor(String endpoint, String client, RateLimited limits, long now) {
+        String clientKey = endpoint + '|' + client;
+        TokenBucket bucket = clientBuckets.get(clientKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        String key = clientBuckets.size() < maxTrackedClients ? clientKey : endpoint + OVERFLOW_CLIENT;
+        return clientBuckets.computeIfAbsent(key,
+                ignored -> new TokenBucket(limits.clientPermitsPerSecond(), limits.clientBurst(), now));
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        if (trustedProxyHops > 0) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                // each proxy appends the address it was called from, so count entries from the right
+                String[] hops = forwardedFor.split(",");
+                return hops[Math.max(0, hops.length - trustedProxyHops)].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private boolean reject(HttpServletResponse response, String endpoint, String reason, HttpStatus status, long waitNanos) {
+        Counter.builder("blog.requests.rejected")
+                .description("Requests refused by rate limiting or load shedding")
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+        return false;
+    }
+}
@@ -0,0 +1,32 @@
+package com.spankinfresh.blog.ratelimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Throttles a request mapping. Requests beyond either token bucket are answered with 429; requests
+ * arriving while the database-bound concurrency limit is reached are answered with 503.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    /** Sustained requests per second allowed from a single client. */
+    double clientPermitsPerSecond();
+
+    /** Requests a single client may send in a burst before being throttled. */
+    int clientBurst();
+
+    /** Sustained requests per second allowed across all clients, or 0 for no endpoint-wide limit. */
+    double endpointPermitsPerSecond() default 0;
+
+    /** Burst size across all clients; only used with {@link #endpointPermitsPerSecond()}. */
+    int endpointBurst() default 0;
+
+    /** Whether the request holds the database connection pool and counts against the concurrency limit. */
+    boolean databaseBound() default true;
+}
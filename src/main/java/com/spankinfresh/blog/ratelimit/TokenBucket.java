@@ -0,0 +1,63 @@
+package com.spankinfresh.blog.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single "theoretical arrival time" (the generic cell rate
+ * algorithm): each permit pushes the arrival time one emission interval into the future, and a
+ * request is refused when that would put it more than a full burst ahead of now.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a permit if one is available.
+     *
+     * @return 0 if the permit was granted, otherwise the nanoseconds until one will be
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrivalNanos.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long waitNanos = next - nowNanos - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a permit taken by {@link #tryAcquire} for a request that was refused further on.
+     */
+    public void refund(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrivalNanos.get();
+            long previous = Math.max(current - emissionIntervalNanos, nowNanos);
+            if (previous >= current || theoreticalArrivalNanos.compareAndSet(current, previous)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * A full bucket holds no state worth keeping and can be discarded.
+     */
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrivalNanos.get() - nowNanos <= 0;
+    }
+}
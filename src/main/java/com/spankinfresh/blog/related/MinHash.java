@@ -0,0 +1,123 @@
+package com.spankinfresh.blog.related;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * MinHash signatures over the words of an article. Two signatures agree in a share of their slots
+ * that estimates the Jaccard similarity of the two word sets. Words are hashed as they are
+ * scanned, so a long article is never split into strings.
+ */
+final class MinHash {
+
+    static final int SIZE = 64;
+    static final int BANDS = 16;
+    static final int ROWS = SIZE / BANDS;
+
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+    private static final long[] SEEDS = new long[SIZE];
+    private static final long TITLE_SALT = 0x5DEECE66DL;
+    private static final long CATEGORY_SALT = 0x2545F4914F6CDD1DL;
+    private static final int MIN_WORD_LENGTH = 3;
+    private static final Set<Long> STOP_WORDS = Set.of(
+            "the", "and", "for", "are", "but", "not", "you", "all", "any", "can", "had", "her", "was", "one", "our",
+            "out", "has", "have", "his", "how", "its", "may", "new", "now", "who", "did", "get", "him", "she", "too",
+            "use", "that", "with", "this", "from", "they", "will", "would", "there", "their", "what", "about",
+            "which", "when", "were", "been", "into", "than", "then", "them", "these", "some", "your", "just", "also")
+            .stream().map(MinHash::hashWord).collect(Collectors.toUnmodifiableSet());
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < SIZE; i++) {
+            seed = mix(seed + i);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private MinHash() {
+    }
+
+    static int[] signature(String title, String category, String content) {
+        long[] minimums = new long[SIZE];
+        Arrays.fill(minimums, Long.MAX_VALUE);
+        addWords(minimums, title, 0);
+        // title words count twice: once as ordinary words and once on their own
+        addWords(minimums, title, TITLE_SALT);
+        if (category != null) {
+            add(minimums, hashWord(category.toLowerCase()) ^ CATEGORY_SALT);
+        }
+        addWords(minimums, content, 0);
+        int[] signature = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            signature[i] = (int) minimums[i];
+        }
+        return signature;
+    }
+
+    static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIZE;
+    }
+
+    /**
+     * Key of one locality-sensitive hashing band. Articles that share any band key are compared.
+     */
+    static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            key = mix(key * 31 + signature[i]);
+        }
+        return key;
+    }
+
+    private static void addWords(long[] minimums, String text, long salt) {
+        if (text == null) {
+            return;
+        }
+        long hash = FNV_OFFSET;
+        int length = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? Character.toLowerCase(text.charAt(i)) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                hash = (hash ^ c) * FNV_PRIME;
+                length++;
+                continue;
+            }
+            if (length >= MIN_WORD_LENGTH && !STOP_WORDS.contains(hash)) {
+                add(minimums, hash ^ salt);
+            }
+            hash = FNV_OFFSET;
+            length = 0;
+        }
+    }
+
+    private static void add(long[] minimums, long word) {
+        for (int i = 0; i < SIZE; i++) {
+            long value = mix(word ^ SEEDS[i]);
+            if (value < minimums[i]) {
+                minimums[i] = value;
+            }
+        }
+    }
+
+    private static long hashWord(String word) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < word.length(); i++) {
+            hash = (hash ^ word.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
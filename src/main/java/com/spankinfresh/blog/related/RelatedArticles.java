@@ -0,0 +1,250 @@
+package com.spankinfresh.blog.related;
+
+import com.spankinfresh.blog.data.RelatedArticlesJdbcTemplateRepository;
+import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Precomputed "related articles" lists. Each article gets a {@link MinHash} signature of its title,
+ * category and content; signatures are grouped into locality-sensitive hashing buckets, and only
+ * articles that share a bucket are compared. The full index is rebuilt in the background on a
+ * fork-join pool and kept current between rebuilds by applying article change events, so lookups
+ * are a map read. Changes made through another instance raise no event here and show up with the
+ * next rebuild, so {@code blog.related.rebuild-interval-ms} is how stale the lists can get.
+ */
+@Component
+public class RelatedArticles {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatedArticles.class);
+
+    private final RelatedArticlesJdbcTemplateRepository repository;
+    private final int size;
+    private final double minSimilarity;
+    private final ForkJoinPool pool;
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "related-articles");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final Object rebuildLock = new Object();
+    private volatile Index index = new Index();
+    private Map<Long, ArticleChangedEvent> changedDuringRebuild;
+
+    public RelatedArticles(RelatedArticlesJdbcTemplateRepository repository,
+                           @Value("${blog.related.size:5}") int size,
+                           @Value("${blog.related.min-similarity:0.1}") double minSimilarity,
+                           @Value("${blog.related.parallelism:0}") int parallelism) {
+        this.repository = repository;
+        this.size = size;
+        this.minSimilarity = minSimilarity;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public List<BlogPost> getRelated(long articleId) {
+        Index current = index;
+        long[] ids = current.related.get(articleId);
+        if (ids == null) {
+            return Collections.emptyList();
+        }
+        List<BlogPost> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Entry entry = current.articles.get(id);
+            if (entry != null) {
+                result.add(entry.summary);
+            }
+        }
+        return result;
+    }
+
+    @Scheduled(initialDelayString = "${blog.related.initial-delay-ms:0}",
+            fixedDelayString = "${blog.related.rebuild-interval-ms:900000}")
+    public void scheduleRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildQueued.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    /**
+     * Reads every article, computes signatures and neighbour lists in parallel, then swaps the new
+     * index in. Changes that arrive meanwhile are applied to both the old and the new index.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new HashMap<>();
+            }
+            Index fresh = new Index();
+            boolean built = false;
+            try {
+                load(fresh);
+                pool.submit(() -> fresh.articles.entrySet().parallelStream()
+                        .forEach(article -> addToBuckets(fresh, article.getKey(), article.getValue()))).join();
+                pool.submit(() -> fresh.articles.keySet().parallelStream()
+                        .forEach(id -> fresh.related.put(id, nearest(fresh, id)))).join();
+                built = true;
+            } catch (DataAccessException e) {
+                log.warn("Could not rebuild related articles; keeping the previous lists", e);
+            } finally {
+                synchronized (this) {
+                    if (built) {
+                        index = fresh;
+                        changedDuringRebuild.values().forEach(event -> apply(fresh, event));
+                    }
+                    changedDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public synchronized void onArticleChanged(ArticleChangedEvent event) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(event.getArticleId(), event);
+        }
+        apply(index, event);
+    }
+
+    private void load(Index fresh) {
+        Semaphore inFlight = new Semaphore(pool.getParallelism() * 4);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        repository.streamArticleText(row -> {
+            long id = row.getLong("id");
+            String title = row.getString("title");
+            String category = row.getString("category");
+            Timestamp datePosted = row.getTimestamp("date_posted");
+            String content = row.getString("content");
+            BlogPost summary = new BlogPost(id, category, datePosted == null ? null : datePosted.toLocalDateTime(),
+                    title, null, null);
+            // bounds how many article bodies wait in memory for a worker
+            inFlight.acquireUninterruptibly();
+            tasks.add(pool.submit(() -> {
+                try {
+                    fresh.articles.put(id, new Entry(summary, MinHash.signature(title, category, content)));
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        });
+        tasks.forEach(ForkJoinTask::join);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private void apply(Index target, ArticleChangedEvent event) {
+        long id = event.getArticleId();
+        Set<Long> affected = new HashSet<>();
+        Entry previous = target.articles.remove(id);
+        if (previous != null) {
+            removeFromBuckets(target, id, previous);
+            affected.addAll(candidates(target, previous.signature));
+            target.related.remove(id);
+        }
+        if (event.getType() != ArticleChangedEvent.Type.DELETED) {
+            BlogPost article = event.getArticle();
+            Entry entry = new Entry(event.getSummary(),
+                    MinHash.signature(article.getTitle(), article.getCategory(), article.getContent()));
+            target.articles.put(id, entry);
+            addToBuckets(target, id, entry);
+            affected.addAll(candidates(target, entry.signature));
+        }
+        for (long affectedId : affected) {
+            if (target.articles.containsKey(affectedId)) {
+                target.related.put(affectedId, nearest(target, affectedId));
+            }
+        }
+    }
+
+    private long[] nearest(Index target, long id) {
+        Entry entry = target.articles.get(id);
+        List<Map.Entry<Long, Double>> scored = new ArrayList<>();
+        for (long candidate : candidates(target, entry.signature)) {
+            Entry other = target.articles.get(candidate);
+            if (candidate == id || other == null) {
+                continue;
+            }
+            double similarity = MinHash.similarity(entry.signature, other.signature);
+            if (similarity >= minSimilarity) {
+                scored.add(Map.entry(candidate, similarity));
+            }
+        }
+        scored.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+        return scored.stream().limit(size).mapToLong(Map.Entry::getKey).toArray();
+    }
+
+    private static Set<Long> candidates(Index target, int[] signature) {
+        Set<Long> candidates = new HashSet<>();
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            Set<Long> bucket = target.buckets.get(MinHash.bandKey(signature, band));
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+        return candidates;
+    }
+
+    private static void addToBuckets(Index target, long id, Entry entry) {
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            target.buckets.computeIfAbsent(MinHash.bandKey(entry.signature, band), key -> ConcurrentHashMap.newKeySet())
+                    .add(id);
+        }
+    }
+
+    private static void removeFromBuckets(Index target, long id, Entry entry) {
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            target.buckets.computeIfPresent(MinHash.bandKey(entry.signature, band), (key, bucket) -> {
+                bucket.remove(id);
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+    }
+
+    private static final class Index {
+        private final Map<Long, Entry> articles = new ConcurrentHashMap<>();
+        private final Map<Long, Set<Long>> buckets = new ConcurrentHashMap<>();
+        private final Map<Long, long[]> related = new ConcurrentHashMap<>();
+    }
+
+    private static final class Entry {
+        private final BlogPost summary;
+        private final int[] signature;
+
+        private Entry(BlogPost summary, int[] signature) {
+            this.summary = summary;
+            this.signature = signature;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.spankinfresh.blog.revisions;
+
+import com.spankinfresh.blog.data.ArticleRevisionJdbcTemplateRepository;
+import com.spankinfresh.blog.domain.ArticleRevision;
+import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Records a revision every time an article is created or updated. Most revisions are stored as a
+ * deflated {@link DeltaCodec delta} against the one before; every {@code snapshot-interval}
+ * revisions, or when an edit rewrote most of the text, the full content is stored instead. Any
+ * version can therefore be rebuilt from one snapshot and fewer than {@code snapshot-interval}
+ * deltas. When another instance stores a revision of the same article in between, the unique key
+ * on the revision number refuses the insert and the revision is worked out again on top of that one.
+ */
+@Component
+public class ArticleRevisionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleRevisionService.class);
+    private static final int RECORD_ATTEMPTS = 3;
+
+    private final ArticleRevisionJdbcTemplateRepository revisionRepository;
+    private final int snapshotInterval;
+
+    public ArticleRevisionService(ArticleRevisionJdbcTemplateRepository revisionRepository,
+                                  @Value("${blog.revisions.snapshot-interval:10}") int snapshotInterval) {
+        this.revisionRepository = revisionRepository;
+        this.snapshotInterval = Math.max(1, snapshotInterval);
+    }
+
+    @EventListener
+    public void onArticleChanged(ArticleChangedEvent event) {
+        try {
+            if (event.getType() == ArticleChangedEvent.Type.DELETED) {
+                revisionRepository.deleteRevisions(event.getArticleId());
+            } else {
+                record(event.getArticle());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not update the revision history of article {}", event.getArticleId(), e);
+        }
+    }
+
+    /**
+     * Stores the article as its next revision. Returns empty if nothing changed since the last one.
+     */
+    public synchronized Optional<ArticleRevision> record(BlogPost article) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return recordAfterLatest(article);
+            } catch (DuplicateKeyException e) {
+                // another instance stored the same revision number first; the delta has to be taken against its revision
+                if (attempt == RECORD_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private Optional<ArticleRevision> recordAfterLatest(BlogPost article) {
+        byte[] content = Objects.toString(article.getContent(), "").getBytes(StandardCharsets.UTF_8);
+        List<ArticleRevision> chain = revisionRepository.getChain(article.getId(), Integer.MAX_VALUE);
+        int number = 1;
+        boolean snapshot = true;
+        byte[] payload = content;
+        if (!chain.isEmpty()) {
+            ArticleRevision latest = chain.get(chain.size() - 1);
+            byte[] previous = rebuild(chain);
+            if (Arrays.equals(previous, content) && Objects.equals(latest.getTitle(), article.getTitle())
+                    && Objects.equals(latest.getCategoryName(), article.getCategory())) {
+                return Optional.empty();
+            }
+            number = latest.getRevision() + 1;
+            if (chain.size() < snapshotInterval) {
+                byte[] delta = DeltaCodec.diff(previous, content);
+                if (delta.length <= content.length / 2) {
+                    snapshot = false;
+                    payload = delta;
+                }
+            }
+        }
+        byte[] data = deflate(payload);
+        ArticleRevision revision = new ArticleRevision(article.getId(), number, LocalDateTime.now(), article.getTitle(),
+                article.getCategory(), snapshot, content.length, data.length);
+        revision.setData(data);
+        revisionRepository.insertRevision(revision);
+        return Optional.of(revision);
+    }
+
+    public List<ArticleRevision> getRevisions(long articleId) {
+        return revisionRepository.getRevisions(articleId);
+    }
+
+    public Optional<ArticleRevision> getRevision(long articleId, int number) {
+        List<ArticleRevision> chain = revisionRepository.getChain(articleId, number);
+        if (chain.isEmpty() || chain.get(chain.size() - 1).getRevision() != number) {
+            return Optional.empty();
+        }
+        ArticleRevision revision = chain.get(chain.size() - 1);
+        revision.setContent(new String(rebuild(chain), StandardCharsets.UTF_8));
+        revision.setData(null);
+        return Optional.of(revision);
+    }
+
+    private static byte[] rebuild(List<ArticleRevision> chain) {
+        byte[] content = null;
+        for (ArticleRevision revision : chain) {
+            byte[] payload = inflate(revision.getData());
+            content = revision.isSnapshot() ? payload : DeltaCodec.apply(content, payload, revision.getContentLength());
+        }
+        return content;
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && inflater.needsInput()) {
+                    throw new IllegalStateException("Truncated revision data");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt revision data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
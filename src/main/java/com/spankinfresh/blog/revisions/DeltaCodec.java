@@ -0,0 +1,148 @@
+package com.spankinfresh.blog.revisions;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Byte-level delta between two versions of a text. The old version is indexed in fixed-size
+ * blocks; a rolling hash over the new version finds blocks it still contains, and each match is
+ * grown in both directions. The delta is a sequence of instructions to copy a range of the old
+ * version or insert literal bytes, so an edit in the middle of a long article costs little more
+ * than the edited text itself.
+ */
+final class DeltaCodec {
+
+    static final int BLOCK_SIZE = 32;
+
+    private static final int INSERT = 0;
+    private static final int COPY = 1;
+    private static final int MULTIPLIER = 257;
+    private static final int OUTGOING_FACTOR = power(MULTIPLIER, BLOCK_SIZE - 1);
+
+    private DeltaCodec() {
+    }
+
+    static byte[] diff(byte[] base, byte[] target) {
+        Map<Integer, Integer> blocks = new HashMap<>(Math.max(16, base.length / BLOCK_SIZE * 2));
+        for (int offset = 0; offset + BLOCK_SIZE <= base.length; offset += BLOCK_SIZE) {
+            blocks.putIfAbsent(hash(base, offset), offset);
+        }
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        int literalStart = 0;
+        int position = 0;
+        int hash = target.length >= BLOCK_SIZE ? hash(target, 0) : 0;
+        while (position + BLOCK_SIZE <= target.length) {
+            Integer candidate = blocks.get(hash);
+            if (candidate != null && regionMatches(base, candidate, target, position)) {
+                int copyStart = candidate;
+                int matchStart = position;
+                while (matchStart > literalStart && copyStart > 0 && base[copyStart - 1] == target[matchStart - 1]) {
+                    copyStart--;
+                    matchStart--;
+                }
+                int matchEnd = position + BLOCK_SIZE;
+                int copyEnd = candidate + BLOCK_SIZE;
+                while (matchEnd < target.length && copyEnd < base.length && base[copyEnd] == target[matchEnd]) {
+                    matchEnd++;
+                    copyEnd++;
+                }
+                writeInsert(delta, target, literalStart, matchStart);
+                delta.write(COPY);
+                writeVarInt(delta, copyStart);
+                writeVarInt(delta, matchEnd - matchStart);
+                position = matchEnd;
+                literalStart = matchEnd;
+                if (position + BLOCK_SIZE <= target.length) {
+                    hash = hash(target, position);
+                }
+                continue;
+            }
+            if (position + BLOCK_SIZE < target.length) {
+                hash = (hash - (target[position] & 0xFF) * OUTGOING_FACTOR) * MULTIPLIER + (target[position + BLOCK_SIZE] & 0xFF);
+            }
+            position++;
+        }
+        writeInsert(delta, target, literalStart, target.length);
+        return delta.toByteArray();
+    }
+
+    static byte[] apply(byte[] base, byte[] delta, int resultLength) {
+        byte[] result = new byte[resultLength];
+        int written = 0;
+        int[] cursor = {0};
+        while (cursor[0] < delta.length) {
+            int instruction = delta[cursor[0]++];
+            if (instruction == COPY) {
+                int offset = readVarInt(delta, cursor);
+                int length = readVarInt(delta, cursor);
+                System.arraycopy(base, offset, result, written, length);
+                written += length;
+            } else if (instruction == INSERT) {
+                int length = readVarInt(delta, cursor);
+                System.arraycopy(delta, cursor[0], result, written, length);
+                cursor[0] += length;
+                written += length;
+            } else {
+                throw new IllegalArgumentException("Corrupt delta instruction " + instruction);
+            }
+        }
+        if (written != resultLength) {
+            throw new IllegalArgumentException("Delta produced " + written + " bytes, expected " + resultLength);
+        }
+        return result;
+    }
+
+    private static void writeInsert(ByteArrayOutputStream delta, byte[] target, int from, int to) {
+        if (to > from) {
+            delta.write(INSERT);
+            writeVarInt(delta, to - from);
+            delta.write(target, from, to - from);
+        }
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(byte[] in, int[] cursor) {
+        int value = 0;
+        int shift = 0;
+        byte next;
+        do {
+            next = in[cursor[0]++];
+            value |= (next & 0x7F) << shift;
+            shift += 7;
+        } while ((next & 0x80) != 0);
+        return value;
+    }
+
+    private static boolean regionMatches(byte[] base, int baseOffset, byte[] target, int targetOffset) {
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            if (base[baseOffset + i] != target[targetOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(byte[] bytes, int offset) {
+        int hash = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            hash = hash * MULTIPLIER + (bytes[offset + i] & 0xFF);
+        }
+        return hash;
+    }
+
+    private static int power(int base, int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,323 @@
+package com.spankinfresh.blog.slugs;
+
+import com.spankinfresh.blog.data.SlugJdbcTemplateRepository;
+import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Resolves article slugs, and slugs left behind by renames, without going to the database. The
+ * index is built in parallel id ranges at startup, which also gives slugs to articles saved
+ * before slugs existed, and is maintained from article change events after that. Those events
+ * are only raised in this process, so a slug the index does not know is looked up in the database
+ * and added, in case another instance saved or renamed the article; a slug the database does not
+ * know either is not looked up again for {@code blog.slugs.miss-ttl-ms}. Slugs are reserved here
+ * before an article is saved so two articles with the same title get different ones; when
+ * another instance got there first, the unique index on the column tells the caller to try again.
+ */
+@Component
+public class SlugIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SlugIndex.class);
+    private static final int LOAD_ATTEMPTS = 3;
+
+    private final SlugJdbcTemplateRepository slugRepository;
+    private final int parallelism;
+    private final long missTtlNanos;
+    private final int maxMisses;
+    private final ConcurrentMap<String, Long> missedUntil = new ConcurrentHashMap<>();
+    private final Object rebuildLock = new Object();
+    private volatile SlugTable table = new SlugTable();
+    private Map<Long, ArticleChangedEvent> changedDuringRebuild;
+    private long changes;
+
+    public SlugIndex(SlugJdbcTemplateRepository slugRepository,
+                     @Value("${blog.slugs.rebuild-parallelism:4}") int parallelism,
+                     @Value("${blog.slugs.miss-ttl-ms:5000}") long missTtlMillis,
+                     @Value("${blog.slugs.max-misses:10000}") int maxMisses) {
+        this.slugRepository = slugRepository;
+        this.parallelism = Math.max(1, parallelism);
+        this.missTtlNanos = TimeUnit.MILLISECONDS.toNanos(missTtlMillis);
+        this.maxMisses = maxMisses;
+    }
+
+    public Optional<SlugResolution> resolve(String slug) {
+        SlugResolution resolution = table.resolve(slug);
+        if (resolution != null) {
+            return Optional.of(resolution);
+        }
+        Long until = missedUntil.get(slug);
+        if (until != null && until - System.nanoTime() > 0) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(lookUp(slug));
+    }
+
+    /**
+     * Picks a slug for the title and holds it until the article is saved. An existing article
+     * ({@code articleId} other than 0) keeps its current slug while its title still produces it.
+     */
+    public synchronized String reserve(long articleId, String title) {
+        String base = Slugs.slugify(title);
+        if (articleId != 0) {
+            String current = table.currentSlug(articleId);
+            if (current != null && Slugs.hasBase(current, base)) {
+                return current;
+            }
+        }
+        for (int n = 1; ; n++) {
+            String candidate = Slugs.withSuffix(base, n);
+            if (!table.isTaken(candidate, articleId)) {
+                table.reserve(candidate, articleId);
+                return candidate;
+            }
+        }
+    }
+
+    /**
+     * Gives back a slug reserved for an article that could not be saved.
+     */
+    public void release(String slug) {
+        table.release(slug);
+    }
+
+    /**
+     * Called when saving an article under {@code slug} broke the unique index. Records the article
+     * that holds the slug in the database so the next {@link #reserve} passes over it, and returns
+     * false if no other article holds it, in which case the save failed for some other reason.
+     */
+    public synchronized boolean takenElsewhere(String slug, long articleId) {
+        List<Long> owners = new ArrayList<>(1);
+        slugRepository.findSlug(slug, resultsRow -> {
+            long ownerId = resultsRow.getLong("id");
+            if (ownerId != articleId) {
+                if (resultsRow.getBoolean("published")) {
+                    table.publish(slug, ownerId);
+                } else {
+                    table.load(slug, ownerId, false);
+                }
+                owners.add(ownerId);
+            }
+        });
+        return !owners.isEmpty();
+    }
+
+    public int size() {
+        return table.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new HashMap<>();
+            }
+            SlugTable fresh = new SlugTable();
+            boolean built = false;
+            try {
+                Optional<long[]> idRange = slugRepository.getIdRange();
+                // another instance backfilling at the same time makes a pass stale; the next one reads its slugs
+                for (int attempt = 1; idRange.isPresent() && !load(fresh, idRange.get()[0], idRange.get()[1]); attempt++) {
+                    if (attempt == LOAD_ATTEMPTS) {
+                        log.warn("Slugs kept changing while the index was built; resolving the rest from the database");
+                        break;
+                    }
+                    fresh = new SlugTable();
+                }
+                built = true;
+            } catch (DataAccessException e) {
+                log.warn("Could not build the slug index; it stays as it is", e);
+            } finally {
+                synchronized (this) {
+                    if (built) {
+                        table = fresh;
+                        changes++;
+                        changedDuringRebuild.values().forEach(this::apply);
+                    }
+                    changedDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public synchronized void onArticleChanged(ArticleChangedEvent event) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(event.getArticleId(), event);
+        }
+        changes++;
+        apply(event);
+    }
+
+    private void apply(ArticleChangedEvent event) {
+        try {
+            if (event.getType() == ArticleChangedEvent.Type.DELETED) {
+                table.remove(event.getArticleId());
+                slugRepository.deleteRedirects(event.getArticleId());
+                return;
+            }
+            BlogPost article = event.getArticle();
+            if (article.getSlug() == null) {
+                return;
+            }
+            String previous = table.publish(article.getSlug(), article.getId());
+            if (previous != null) {
+                slugRepository.addRedirect(previous, article.getSlug(), article.getId());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not store the slug redirects of article {}", event.getArticleId(), e);
+        }
+    }
+
+    /**
+     * Reads the slug from the database without holding the index, so a slow query does not hold
+     * up reservations and change events; what it finds is only added if no change came in meanwhile.
+     */
+    private SlugResolution lookUp(String slug) {
+        long seen;
+        synchronized (this) {
+            seen = changes;
+        }
+        List<SlugResolution> found = new ArrayList<>(1);
+        slugRepository.findSlug(slug, resultsRow -> {
+            if (resultsRow.getBoolean("published")) {
+                found.add(new SlugResolution(resultsRow.getLong("id"), null));
+            }
+        });
+        if (found.isEmpty()) {
+            slugRepository.findRedirect(slug, resultsRow ->
+                    found.add(new SlugResolution(resultsRow.getLong("article_id"), resultsRow.getString("slug"))));
+        }
+        if (found.isEmpty()) {
+            rememberMiss(slug);
+            return null;
+        }
+        SlugResolution resolution = found.get(0);
+        synchronized (this) {
+            if (changes == seen) {
+                // the redirect for the article's previous slug was stored by the instance that renamed it
+                String current = resolution.getRedirectTo() == null ? slug : resolution.getRedirectTo();
+                table.publish(current, resolution.getArticleId());
+                if (resolution.getRedirectTo() != null) {
+                    table.redirect(slug, resolution.getArticleId(), current);
+                }
+            }
+        }
+        return resolution;
+    }
+
+    private void rememberMiss(String slug) {
+        long now = System.nanoTime();
+        if (missedUntil.size() >= maxMisses) {
+            missedUntil.values().removeIf(until -> until - now <= 0);
+            if (missedUntil.size() >= maxMisses) {
+                missedUntil.clear();
+            }
+        }
+        missedUntil.put(slug, now + missTtlNanos);
+    }
+
+    /**
+     * Fills {@code fresh} from the database. Returns false if another instance stored slugs for
+     * some of the same articles meanwhile, in which case the table does not match the database.
+     */
+    private boolean load(SlugTable fresh, long lowId, long highId) {
+        int parts = parallelism * 4;
+        long step = Math.max(1, (highId - lowId) / parts + 1);
+        List<List<Row>> loaded = new ArrayList<>(Collections.nCopies(parts, null));
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> LongStream.range(0, parts).parallel().forEach(part -> {
+                long fromId = lowId + part * step;
+                List<Row> rows = new ArrayList<>();
+                slugRepository.streamSlugs(fromId, fromId + step, resultsRow -> {
+                    String slug = resultsRow.getString("slug");
+                    rows.add(new Row(resultsRow.getLong("id"), slug,
+                            slug == null ? Slugs.slugify(resultsRow.getString("title")) : null,
+                            resultsRow.getBoolean("published")));
+                });
+                loaded.set((int) part, rows);
+            })).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        Map<Long, String> currentById = new HashMap<>();
+        List<Row> unslugged = new ArrayList<>();
+        for (List<Row> rows : loaded) {
+            for (Row row : rows) {
+                if (row.slug == null) {
+                    unslugged.add(row);
+                } else {
+                    claim(fresh, row, row.slug, currentById);
+                }
+            }
+        }
+        unslugged.sort(Comparator.comparingLong(row -> row.id));
+        Map<Long, String> assigned = new LinkedHashMap<>();
+        for (Row row : unslugged) {
+            String slug = Slugs.withSuffix(row.base, 1);
+            for (int n = 2; fresh.isTaken(slug, 0); n++) {
+                slug = Slugs.withSuffix(row.base, n);
+            }
+            claim(fresh, row, slug, currentById);
+            assigned.put(row.id, slug);
+        }
+        if (!assigned.isEmpty()) {
+            int stored = slugRepository.assignSlugs(assigned);
+            log.info("Assigned slugs to {} articles", stored);
+            if (stored < assigned.size()) {
+                return false;
+            }
+        }
+        slugRepository.streamRedirects(resultsRow -> {
+            long articleId = resultsRow.getLong("article_id");
+            String target = currentById.get(articleId);
+            if (target != null) {
+                fresh.redirect(resultsRow.getString("slug"), articleId, target);
+            }
+        });
+        return true;
+    }
+
+    private static void claim(SlugTable fresh, Row row, String slug, Map<Long, String> currentById) {
+        fresh.load(slug, row.id, row.published);
+        if (row.published) {
+            currentById.put(row.id, slug);
+        }
+    }
+
+    private static final class Row {
+        private final long id;
+        private final String slug;
+        private final String base;
+        private final boolean published;
+
+        private Row(long id, String slug, String base, boolean published) {
+            this.id = id;
+            this.slug = slug;
+            this.base = base;
+            this.published = published;
+        }
+    }
+}
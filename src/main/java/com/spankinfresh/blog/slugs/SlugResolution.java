@@ -0,0 +1,27 @@
+package com.spankinfresh.blog.slugs;
+
+public class SlugResolution {
+
+    private final long articleId;
+    private final String redirectTo;
+
+    SlugResolution(long articleId, String redirectTo) {
+        this.articleId = articleId;
+        this.redirectTo = redirectTo;
+    }
+
+    public long getArticleId() {
+        return articleId;
+    }
+
+    /**
+     * The article's current slug when the slug looked up is one it used to have, otherwise null.
+     */
+    public String getRedirectTo() {
+        return redirectTo;
+    }
+
+    public boolean isRedirect() {
+        return redirectTo != null;
+    }
+}
@@ -0,0 +1,273 @@
+package com.spankinfresh.blog.slugs;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing hash table from slug to article, kept in parallel arrays instead of one map
+ * entry and boxed id per slug. An entry is the article's current slug, a redirect left behind by
+ * a rename (with the slug it now redirects to), or a reservation for an article that is being
+ * saved or is not yet published. Lookups are lock-free unless they race a write; writes scan the
+ * whole table when they have to find an article's other slugs, which for the few writes a blog
+ * sees is cheaper than keeping a second index by article id.
+ */
+final class SlugTable {
+
+    private static final String TOMBSTONE = new String("");
+    private static final byte LIVE = 1;
+    private static final byte REDIRECT = 2;
+    private static final byte RESERVED = 3;
+
+    private final StampedLock lock = new StampedLock();
+    private Slots slots = new Slots(16);
+    private int size;
+    private int used;
+
+    SlugResolution resolve(String slug) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            SlugResolution resolution = resolve(slots, slug);
+            if (lock.validate(stamp)) {
+                return resolution;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return resolve(slots, slug);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Whether the slug belongs to an article other than {@code articleId}. Every existing slug
+     * counts as taken for a new article ({@code articleId} 0).
+     */
+    boolean isTaken(String slug, long articleId) {
+        long stamp = lock.readLock();
+        try {
+            int index = find(slots, slug);
+            return index >= 0 && (articleId == 0 || slots.ids[index] != articleId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    String currentSlug(long articleId) {
+        long stamp = lock.readLock();
+        try {
+            for (int i = 0; i < slots.slugs.length; i++) {
+                if (slots.states[i] == LIVE && slots.ids[i] == articleId) {
+                    return slots.slugs[i];
+                }
+            }
+            return null;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    void reserve(String slug, long articleId) {
+        long stamp = lock.writeLock();
+        try {
+            if (find(slots, slug) < 0) {
+                put(slug, articleId, RESERVED, null);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Drops a reservation that was never used.
+     */
+    void release(String slug) {
+        long stamp = lock.writeLock();
+        try {
+            int index = find(slots, slug);
+            if (index >= 0 && slots.states[index] == RESERVED) {
+                clear(index);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Makes {@code slug} the article's current slug. The slug it had before becomes a redirect and
+     * is returned; redirects it already had are pointed at the new slug.
+     */
+    String publish(String slug, long articleId) {
+        long stamp = lock.writeLock();
+        try {
+            String previous = null;
+            for (int i = 0; i < slots.slugs.length; i++) {
+                String other = slots.slugs[i];
+                if (other == null || other == TOMBSTONE || slots.ids[i] != articleId || other.equals(slug)) {
+                    continue;
+                }
+                if (slots.states[i] == RESERVED) {
+                    clear(i);
+                    continue;
+                }
+                if (slots.states[i] == LIVE) {
+                    slots.states[i] = REDIRECT;
+                    previous = other;
+                }
+                slots.targets[i] = slug;
+            }
+            put(slug, articleId, LIVE, null);
+            return previous;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Adds an article's slug while the table is being built, without looking for its other slugs.
+     */
+    void load(String slug, long articleId, boolean published) {
+        long stamp = lock.writeLock();
+        try {
+            put(slug, articleId, published ? LIVE : RESERVED, null);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void redirect(String slug, long articleId, String target) {
+        long stamp = lock.writeLock();
+        try {
+            put(slug, articleId, REDIRECT, target);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void remove(long articleId) {
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < slots.slugs.length; i++) {
+                String slug = slots.slugs[i];
+                if (slug != null && slug != TOMBSTONE && slots.ids[i] == articleId) {
+                    clear(i);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void put(String slug, long articleId, byte state, String target) {
+        int index = find(slots, slug);
+        if (index < 0) {
+            if ((used + 1) * 2 > slots.slugs.length) {
+                rehash();
+            }
+            index = freeSlot(slots, slug);
+            if (slots.slugs[index] == null) {
+                used++;
+            }
+            size++;
+        }
+        slots.ids[index] = articleId;
+        slots.states[index] = state;
+        slots.targets[index] = target;
+        slots.slugs[index] = slug;
+    }
+
+    private void clear(int index) {
+        slots.slugs[index] = TOMBSTONE;
+        slots.ids[index] = 0;
+        slots.states[index] = 0;
+        slots.targets[index] = null;
+        size--;
+    }
+
+    private void rehash() {
+        int capacity = 16;
+        while (capacity < (size + 1) * 4) {
+            capacity <<= 1;
+        }
+        Slots old = slots;
+        Slots fresh = new Slots(capacity);
+        for (int i = 0; i < old.slugs.length; i++) {
+            String slug = old.slugs[i];
+            if (slug != null && slug != TOMBSTONE) {
+                int index = freeSlot(fresh, slug);
+                fresh.slugs[index] = slug;
+                fresh.ids[index] = old.ids[i];
+                fresh.states[index] = old.states[i];
+                fresh.targets[index] = old.targets[i];
+            }
+        }
+        slots = fresh;
+        used = size;
+    }
+
+    private static SlugResolution resolve(Slots slots, String slug) {
+        int index = find(slots, slug);
+        if (index < 0) {
+            return null;
+        }
+        switch (slots.states[index]) {
+            case LIVE:
+                return new SlugResolution(slots.ids[index], null);
+            case REDIRECT:
+                return new SlugResolution(slots.ids[index], slots.targets[index]);
+            default:
+                return null;
+        }
+    }
+
+    private static int find(Slots slots, String slug) {
+        int mask = slots.slugs.length - 1;
+        int index = hash(slug) & mask;
+        for (int probes = 0; probes <= mask; probes++, index = (index + 1) & mask) {
+            String candidate = slots.slugs[index];
+            if (candidate == null) {
+                return -1;
+            }
+            if (candidate != TOMBSTONE && candidate.equals(slug)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static int freeSlot(Slots slots, String slug) {
+        int mask = slots.slugs.length - 1;
+        int index = hash(slug) & mask;
+        while (slots.slugs[index] != null && slots.slugs[index] != TOMBSTONE) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private static int hash(String slug) {
+        int h = slug.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Slots {
+        private final String[] slugs;
+        private final long[] ids;
+        private final String[] targets;
+        private final byte[] states;
+
+        private Slots(int capacity) {
+            slugs = new String[capacity];
+            ids = new long[capacity];
+            targets = new String[capacity];
+            states = new byte[capacity];
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.spankinfresh.blog.slugs;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Turns titles into URL slugs: accents dropped, lower case, runs of anything other than letters
+ * and digits collapsed to one hyphen. Titles that share a slug are told apart by a numeric suffix.
+ */
+final class Slugs {
+
+    static final int MAX_BASE_LENGTH = 80;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private Slugs() {
+    }
+
+    static String slugify(String title) {
+        String folded = MARKS.matcher(Normalizer.normalize(title == null ? "" : title, Normalizer.Form.NFKD))
+                .replaceAll("").toLowerCase(Locale.ROOT);
+        String slug = trimHyphens(SEPARATORS.matcher(folded).replaceAll("-"));
+        if (slug.length() > MAX_BASE_LENGTH) {
+            slug = trimHyphens(slug.substring(0, MAX_BASE_LENGTH));
+        }
+        return slug.isEmpty() ? "article" : slug;
+    }
+
+    static String withSuffix(String base, int n) {
+        return n == 1 ? base : base + "-" + n;
+    }
+
+    /**
+     * Whether {@code slug} is {@code base} itself or {@code base} with a numeric suffix.
+     */
+    static boolean hasBase(String slug, String base) {
+        if (slug.equals(base)) {
+            return true;
+        }
+        if (!slug.startsWith(base + "-") || slug.length() == base.length() + 1) {
+            return false;
+        }
+        for (int i = base.length() + 1; i < slug.length(); i++) {
+            if (!Character.isDigit(slug.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String trimHyphens(String slug) {
+        int start = 0;
+        int end = slug.length();
+        while (start < end && slug.charAt(start) == '-') {
+            start++;
+        }
+        while (end > start && slug.charAt(end - 1) == '-') {
+            end--;
+        }
+        return slug.substring(start, end);
+    }
+}
@@ -0,0 +1,137 @@
+package com.spankinfresh.blog.snapshot;
+
+import com.spankinfresh.blog.data.SnapshotJdbcTemplateRepository;
+import com.spankinfresh.blog.ratelimit.RateLimited;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionException;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stops database-bound GET requests the snapshot can answer from queueing for a connection once the database has failed
+ * {@code blog.snapshot.failure-threshold} times without a health probe succeeding in between.
+ * While open, those requests fail at once with {@link DatabaseUnavailableException}, which the
+ * snapshot fallback answers from the snapshot without touching the pool. Requests the snapshot has
+ * no data for, and those served from memory, go ahead as usual. A single thread probes
+ * the database after each failure, and every {@code blog.snapshot.probe-interval-ms} while it
+ * keeps failing; the first probe that succeeds closes the breaker again.
+ */
+@Component
+@ConditionalOnProperty("blog.snapshot.path")
+public class DatabaseCircuitBreaker implements HandlerInterceptor, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseCircuitBreaker.class);
+
+    private final SnapshotJdbcTemplateRepository snapshotRepository;
+    private final int failureThreshold;
+    private final long probeIntervalMillis;
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile boolean open;
+    private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "database-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DatabaseCircuitBreaker(SnapshotJdbcTemplateRepository snapshotRepository,
+                                  @Value("${blog.snapshot.failure-threshold:5}") int failureThreshold,
+                                  @Value("${blog.snapshot.probe-interval-ms:5000}") long probeIntervalMillis) {
+        this.snapshotRepository = snapshotRepository;
+        this.failureThreshold = failureThreshold;
+        this.probeIntervalMillis = probeIntervalMillis;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Counts a failure that means the database could not be reached; failures the database itself
+     * reported, such as constraint violations, are ignored.
+     */
+    public void recordFailure(RuntimeException exception) {
+        if (exception instanceof DatabaseUnavailableException || !isUnavailable(exception)) {
+            return;
+        }
+        if (failures.incrementAndGet() >= failureThreshold && !open) {
+            open = true;
+            log.warn("Database failed {} times in a row; reads are served from the snapshot until it answers again",
+                    failureThreshold);
+        }
+        if (probing.compareAndSet(false, true)) {
+            prober.execute(this::probe);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (open && "GET".equals(request.getMethod()) && servedFromSnapshot(request, handler)) {
+            throw new DatabaseUnavailableException();
+        }
+        return true;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("blog.database.circuit.open", this, breaker -> breaker.open ? 1 : 0)
+                .description("1 while reads skip the database and are served from the snapshot")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prober.shutdownNow();
+    }
+
+    private void probe() {
+        try {
+            snapshotRepository.ping();
+        } catch (DataAccessException | TransactionException e) {
+            prober.schedule(this::probe, probeIntervalMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+        failures.set(0);
+        if (open) {
+            open = false;
+            log.info("Database is reachable again");
+        }
+        probing.set(false);
+    }
+
+    private static boolean servedFromSnapshot(HttpServletRequest request, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return false;
+        }
+        RateLimited limits = ((HandlerMethod) handler).getMethodAnnotation(RateLimited.class);
+        return (limits == null || limits.databaseBound())
+                && SnapshotService.SERVED_PATTERNS.contains(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+    }
+
+    private static boolean isUnavailable(RuntimeException exception) {
+        return exception instanceof DataAccessResourceFailureException
+                || exception instanceof TransientDataAccessException
+                || exception instanceof CannotCreateTransactionException;
+    }
+}
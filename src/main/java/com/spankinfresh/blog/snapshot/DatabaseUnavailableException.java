@@ -0,0 +1,16 @@
+package com.spankinfresh.blog.snapshot;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+
+/**
+ * Thrown instead of trying the database while the {@link DatabaseCircuitBreaker} is open, so the
+ * request fails, or is answered from the snapshot, without waiting for a connection.
+ */
+public class DatabaseUnavailableException extends DataAccessResourceFailureException {
+
+    private static final long serialVersionUID = 1L;
+
+    DatabaseUnavailableException() {
+        super("Database marked unavailable until the next successful health probe");
+    }
+}
@@ -0,0 +1,245 @@
+package com.spankinfresh.blog.snapshot;
+
+import com.spankinfresh.blog.domain.Author;
+import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.domain.Category;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.spankinfresh.blog.snapshot.SnapshotFormat.*;
+
+/**
+ * Read-only view over a snapshot file. The file is mapped once and records are decoded on demand,
+ * so the heap only holds what a single response needs. Lookups by id binary search the index
+ * sections; newest-first listings walk the order index.
+ */
+public class MappedSnapshot {
+
+    private final ByteBuffer buffer;
+    private final Instant createdAt;
+    private final int articleCount;
+    private final int authorCount;
+    private final int categoryCount;
+    private final int articleIndex;
+    private final int orderIndex;
+    private final int authorIndex;
+    private final int categoryIndex;
+
+    private MappedSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a snapshot file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported snapshot version " + buffer.getInt(4));
+        }
+        this.createdAt = Instant.ofEpochMilli(buffer.getLong(8));
+        this.articleCount = buffer.getInt(16);
+        this.authorCount = buffer.getInt(20);
+        this.categoryCount = buffer.getInt(24);
+        this.articleIndex = (int) buffer.getLong(32);
+        this.orderIndex = (int) buffer.getLong(40);
+        this.authorIndex = (int) buffer.getLong(48);
+        this.categoryIndex = (int) buffer.getLong(56);
+    }
+
+    public static MappedSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot is larger than 2 GB");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedSnapshot(mapped);
+        }
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Optional<BlogPost> findArticle(long id) {
+        int offset = find(articleIndex, articleCount, id);
+        return offset < 0 ? Optional.empty() : Optional.of(readArticle(id, offset, true));
+    }
+
+    public List<BlogPost> findAllArticles() {
+        List<BlogPost> result = new ArrayList<>(articleCount);
+        Map<Long, Author> authors = new HashMap<>();
+        Map<Long, String> categories = new HashMap<>();
+        for (int i = 0; i < articleCount; i++) {
+            result.add(readArticle(entryId(articleIndex, i), entryOffset(articleIndex, i), true, authors, categories));
+        }
+        return result;
+    }
+
+    /**
+     * Same shape as the summary query: no content and no author.
+     */
+    public List<BlogPost> findAllSummaries() {
+        List<BlogPost> result = new ArrayList<>(articleCount);
+        Map<Long, String> categories = new HashMap<>();
+        for (int i = 0; i < articleCount; i++) {
+            int position = articlePosition(i);
+            result.add(readArticle(entryId(articleIndex, position), entryOffset(articleIndex, position),
+                    false, null, categories));
+        }
+        return result;
+    }
+
+    public List<BlogPost> findByCategoryName(String categoryName) {
+        long categoryId = -1;
+        for (int i = 0; i < categoryCount; i++) {
+            if (categoryName.equals(readString(entryOffset(categoryIndex, i)))) {
+                categoryId = entryId(categoryIndex, i);
+                break;
+            }
+        }
+        List<BlogPost> result = new ArrayList<>();
+        if (categoryId < 0) {
+            return result;
+        }
+        Map<Long, Author> authors = new HashMap<>();
+        Map<Long, String> categories = new HashMap<>();
+        for (int i = 0; i < articleCount; i++) {
+            int position = articlePosition(i);
+            int offset = entryOffset(articleIndex, position);
+            if (buffer.getLong(offset + ARTICLE_CATEGORY_ID) == categoryId) {
+                result.add(readArticle(entryId(articleIndex, position), offset, true, authors, categories));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Categories that have at least one article, by name, as the live query returns them.
+     */
+    public List<Category> findCategoriesInUse() {
+        boolean[] used = new boolean[categoryCount];
+        for (int i = 0; i < articleCount; i++) {
+            long categoryId = buffer.getLong(entryOffset(articleIndex, i) + ARTICLE_CATEGORY_ID);
+            int position = position(categoryIndex, categoryCount, categoryId);
+            if (position >= 0) {
+                used[position] = true;
+            }
+        }
+        List<Category> result = new ArrayList<>();
+        for (int i = 0; i < categoryCount; i++) {
+            if (used[i]) {
+                result.add(new Category(entryId(categoryIndex, i), readString(entryOffset(categoryIndex, i))));
+            }
+        }
+        result.sort((a, b) -> a.getCategoryName().compareTo(b.getCategoryName()));
+        return result;
+    }
+
+    public Optional<Author> findAuthor(long id) {
+        int offset = find(authorIndex, authorCount, id);
+        return offset < 0 ? Optional.empty() : Optional.of(readAuthor(id, offset));
+    }
+
+    public List<Author> findAllAuthors() {
+        List<Author> result = new ArrayList<>(authorCount);
+        for (int i = 0; i < authorCount; i++) {
+            result.add(readAuthor(entryId(authorIndex, i), entryOffset(authorIndex, i)));
+        }
+        return result;
+    }
+
+    private BlogPost readArticle(long id, int offset, boolean withContent) {
+        return readArticle(id, offset, withContent, new HashMap<>(), new HashMap<>());
+    }
+
+    private BlogPost readArticle(long id, int offset, boolean withContent, Map<Long, Author> authors,
+                                 Map<Long, String> categories) {
+        long seconds = buffer.getLong(offset + ARTICLE_SECONDS);
+        LocalDateTime datePosted = seconds == NO_DATE ? null
+                : LocalDateTime.ofEpochSecond(seconds, buffer.getInt(offset + ARTICLE_NANOS), ZoneOffset.UTC);
+        long categoryId = buffer.getLong(offset + ARTICLE_CATEGORY_ID);
+        String category = categories.computeIfAbsent(categoryId, key -> {
+            int categoryOffset = find(categoryIndex, categoryCount, key);
+            return categoryOffset < 0 ? null : readString(categoryOffset);
+        });
+        int titleOffset = offset + ARTICLE_TITLE;
+        String title = readString(titleOffset);
+        if (!withContent) {
+            return new BlogPost(id, category, datePosted, title, null, null);
+        }
+        String content = readString(titleOffset + stringSize(titleOffset));
+        long authorId = buffer.getLong(offset + ARTICLE_AUTHOR_ID);
+        Author author = authors.computeIfAbsent(authorId, key -> {
+            int authorOffset = find(authorIndex, authorCount, key);
+            return authorOffset < 0 ? null : readAuthor(key, authorOffset);
+        });
+        return new BlogPost(id, category, datePosted, title, content, author);
+    }
+
+    private Author readAuthor(long id, int offset) {
+        String firstName = readString(offset);
+        offset += stringSize(offset);
+        String lastName = readString(offset);
+        offset += stringSize(offset);
+        return new Author(id, firstName, lastName, readString(offset));
+    }
+
+    private int articlePosition(int order) {
+        return buffer.getInt(orderIndex + order * Integer.BYTES);
+    }
+
+    private int find(int index, int count, long id) {
+        int position = position(index, count, id);
+        return position < 0 ? -1 : entryOffset(index, position);
+    }
+
+    private int position(int index, int count, long id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = entryId(index, mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private long entryId(int index, int position) {
+        return buffer.getLong(index + position * INDEX_ENTRY_SIZE);
+    }
+
+    private int entryOffset(int index, int position) {
+        return (int) buffer.getLong(index + position * INDEX_ENTRY_SIZE + Long.BYTES);
+    }
+
+    private int stringSize(int offset) {
+        return Integer.BYTES + Math.max(0, buffer.getInt(offset));
+    }
+
+    private String readString(int offset) {
+        int length = buffer.getInt(offset);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.duplicate().position(offset + Integer.BYTES).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,23 @@
+package com.spankinfresh.blog.snapshot;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty("blog.snapshot.path")
+public class SnapshotConfiguration implements WebMvcConfigurer {
+
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+
+    public SnapshotConfiguration(DatabaseCircuitBreaker databaseCircuitBreaker) {
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(databaseCircuitBreaker).addPathPatterns("/api/**").order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
@@ -0,0 +1,37 @@
+package com.spankinfresh.blog.snapshot;
+
+/**
+ * Layout of a snapshot file. All numbers are big-endian.
+ *
+ * <pre>
+ * header       magic, version, created-at millis, article/author/category counts,
+ *              offsets of the four index sections
+ * records      article, author and category records back to back
+ * article idx  (id, record offset) pairs sorted by id
+ * order idx    article index positions sorted newest first
+ * author idx   (id, record offset) pairs sorted by id
+ * category idx (id, record offset) pairs sorted by id
+ * </pre>
+ *
+ * An article record starts with fixed-width fields (posted-at seconds and nanos, category id,
+ * author id) followed by length-prefixed UTF-8 title and content, so filters and summaries can read
+ * it without touching the content bytes. Author records hold three strings, category records one.
+ * A string length of -1 means null.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x424C4753; // "BLGS"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int INDEX_ENTRY_SIZE = 16;
+    static final long NO_DATE = Long.MIN_VALUE;
+
+    static final int ARTICLE_SECONDS = 0;
+    static final int ARTICLE_NANOS = 8;
+    static final int ARTICLE_CATEGORY_ID = 12;
+    static final int ARTICLE_AUTHOR_ID = 20;
+    static final int ARTICLE_TITLE = 28;
+
+    private SnapshotFormat() {
+    }
+}
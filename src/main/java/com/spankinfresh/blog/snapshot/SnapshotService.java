@@ -0,0 +1,91 @@
+package com.spankinfresh.blog.snapshot;
+
+import com.spankinfresh.blog.data.SnapshotJdbcTemplateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps a recent copy of the blog on local disk so reads can still be answered while the database
+ * is unreachable. A new snapshot is written on a schedule and swapped in once it is complete; the
+ * file from the previous run is mapped at startup, so a restart during an outage still serves it.
+ * The dump runs on its own thread so that it does not hold up the other scheduled tasks.
+ */
+@Component
+@ConditionalOnProperty("blog.snapshot.path")
+public class SnapshotService {
+
+    /** Request mappings whose GET responses can be answered from the snapshot. */
+    public static final Set<String> SERVED_PATTERNS = Set.of("/api/articles", "/api/articles/{id}",
+            "/api/articles/category", "/api/summary/articles", "/api/categories", "/api/authors", "/api/authors/{id}");
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotService.class);
+
+    private final SnapshotWriter writer;
+    private final Path path;
+    private volatile MappedSnapshot current;
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+
+    public SnapshotService(SnapshotJdbcTemplateRepository snapshotRepository,
+                           @Value("${blog.snapshot.path}") String path) {
+        this.writer = new SnapshotWriter(snapshotRepository);
+        this.path = Paths.get(path);
+        if (Files.exists(this.path)) {
+            try {
+                current = MappedSnapshot.open(this.path);
+                log.info("Mapped snapshot taken at {}", current.getCreatedAt());
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable snapshot {}", this.path, e);
+            }
+        }
+    }
+
+    public Optional<MappedSnapshot> getSnapshot() {
+        return Optional.ofNullable(current);
+    }
+
+    @Scheduled(fixedDelayString = "${blog.snapshot.interval-ms:300000}")
+    public void scheduleRefresh() {
+        if (refreshQueued.compareAndSet(false, true)) {
+            refresher.execute(() -> {
+                refreshQueued.set(false);
+                refresh();
+            });
+        }
+    }
+
+    public synchronized void refresh() {
+        try {
+            writer.write(path);
+            current = MappedSnapshot.open(path);
+        } catch (IOException | DataAccessException e) {
+            log.warn("Could not write a new snapshot; still serving the one from {}",
+                    current == null ? "nowhere" : current.getCreatedAt(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+}
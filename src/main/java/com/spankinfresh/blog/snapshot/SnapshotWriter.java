@@ -0,0 +1,170 @@
+package com.spankinfresh.blog.snapshot;
+
+import com.spankinfresh.blog.data.SnapshotJdbcTemplateRepository;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import static com.spankinfresh.blog.snapshot.SnapshotFormat.*;
+
+/**
+ * Streams the database into a new snapshot file, then moves it over the previous one.
+ */
+class SnapshotWriter {
+
+    private final SnapshotJdbcTemplateRepository repository;
+
+    SnapshotWriter(SnapshotJdbcTemplateRepository repository) {
+        this.repository = repository;
+    }
+
+    void write(Path target) throws IOException {
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        IndexBuilder articles = new IndexBuilder();
+        IndexBuilder authors = new IndexBuilder();
+        IndexBuilder categories = new IndexBuilder();
+        long[] sectionOffsets = new long[4];
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.write(new byte[HEADER_SIZE]);
+            try {
+                repository.streamAll(row -> {
+                    try {
+                        Timestamp datePosted = row.getTimestamp("date_posted");
+                        long seconds = NO_DATE;
+                        int nanos = 0;
+                        if (datePosted != null) {
+                            LocalDateTime local = datePosted.toLocalDateTime();
+                            seconds = local.toEpochSecond(ZoneOffset.UTC);
+                            nanos = local.getNano();
+                        }
+                        articles.add(row.getLong("id"), offsetOf(out), seconds, nanos);
+                        out.writeLong(seconds);
+                        out.writeInt(nanos);
+                        out.writeLong(row.getLong("category_id"));
+                        out.writeLong(row.getLong("author_id"));
+                        writeString(out, row.getString("title"));
+                        writeString(out, row.getString("content"));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, row -> {
+                    try {
+                        authors.add(row.getLong("id"), offsetOf(out), 0, 0);
+                        writeString(out, row.getString("first_name"));
+                        writeString(out, row.getString("last_name"));
+                        writeString(out, row.getString("email_address"));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, row -> {
+                    try {
+                        categories.add(row.getLong("id"), offsetOf(out), 0, 0);
+                        writeString(out, row.getString("category_name"));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            sectionOffsets[0] = offsetOf(out);
+            articles.writeIndex(out);
+            sectionOffsets[1] = offsetOf(out);
+            for (int position : articles.newestFirst()) {
+                out.writeInt(position);
+            }
+            sectionOffsets[2] = offsetOf(out);
+            authors.writeIndex(out);
+            sectionOffsets[3] = offsetOf(out);
+            categories.writeIndex(out);
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(temp.toFile(), "rw")) {
+            file.writeInt(MAGIC);
+            file.writeInt(VERSION);
+            file.writeLong(System.currentTimeMillis());
+            file.writeInt(articles.size);
+            file.writeInt(authors.size);
+            file.writeInt(categories.size);
+            file.writeInt(0);
+            for (long offset : sectionOffsets) {
+                file.writeLong(offset);
+            }
+            file.getChannel().force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long offsetOf(DataOutputStream out) throws IOException {
+        if (out.size() == Integer.MAX_VALUE) {
+            throw new IOException("Snapshot exceeds the 2 GB that can be mapped in one buffer");
+        }
+        return out.size();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static final class IndexBuilder {
+        private long[] ids = new long[1024];
+        private long[] offsets = new long[1024];
+        private long[] seconds = new long[1024];
+        private int[] nanos = new int[1024];
+        private int size;
+
+        void add(long id, long offset, long second, int nano) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+                seconds = Arrays.copyOf(seconds, size * 2);
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            ids[size] = id;
+            offsets[size] = offset;
+            seconds[size] = second;
+            nanos[size] = nano;
+            size++;
+        }
+
+        void writeIndex(DataOutputStream out) throws IOException {
+            // rows were read ordered by id, so the index is already sorted
+            for (int i = 0; i < size; i++) {
+                out.writeLong(ids[i]);
+                out.writeLong(offsets[i]);
+            }
+        }
+
+        int[] newestFirst() {
+            Comparator<Integer> newest = Comparator.<Integer>comparingLong(i -> seconds[i])
+                    .thenComparingInt(i -> nanos[i])
+                    .thenComparingLong(i -> ids[i])
+                    .reversed();
+            return IntStream.range(0, size).boxed().sorted(newest).mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
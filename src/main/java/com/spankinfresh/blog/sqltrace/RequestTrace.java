@@ -0,0 +1,57 @@
+package com.spankinfresh.blog.sqltrace;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statements run on behalf of one HTTP request. Only touched by the thread serving the request.
+ */
+public class RequestTrace {
+
+    private final String requestId;
+    private String handler = "-";
+    private int statementCount;
+    private long totalNanos;
+    private final Map<String, Repeats> bySql = new HashMap<>();
+
+    RequestTrace(String requestId) {
+        this.requestId = requestId;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public String getHandler() {
+        return handler;
+    }
+
+    void setHandler(String handler) {
+        this.handler = handler;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    void record(String normalizedSql, long elapsedNanos) {
+        statementCount++;
+        totalNanos += elapsedNanos;
+        Repeats repeats = bySql.computeIfAbsent(normalizedSql, sql -> new Repeats());
+        repeats.count++;
+        repeats.nanos += elapsedNanos;
+    }
+
+    Map<String, Repeats> getBySql() {
+        return bySql;
+    }
+
+    static final class Repeats {
+        int count;
+        long nanos;
+    }
+}
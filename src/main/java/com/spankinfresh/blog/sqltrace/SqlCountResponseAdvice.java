@@ -0,0 +1,55 @@
+package com.spankinfresh.blog.sqltrace;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Adds the number of statements a request ran, and their total time, to its response headers. The
+ * headers have to go out before the body is written, so statements run while serializing the body
+ * are not counted.
+ */
+@ControllerAdvice("com.spankinfresh.blog.api")
+@ConditionalOnProperty(name = "blog.sql-trace.enabled", havingValue = "true", matchIfMissing = true)
+class SqlCountResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String COUNT_HEADER = "X-SQL-Count";
+    static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    private final SqlTracer tracer;
+    private final boolean responseHeaders;
+
+    SqlCountResponseAdvice(SqlTracer tracer, @Value("${blog.sql-trace.response-headers:false}") boolean responseHeaders) {
+        this.tracer = tracer;
+        this.responseHeaders = responseHeaders;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return responseHeaders;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTrace trace = tracer.current();
+        if (trace != null) {
+            addHeaders(trace, response.getHeaders()::set);
+        }
+        return body;
+    }
+
+    static void addHeaders(RequestTrace trace, BiConsumer<String, String> setHeader) {
+        setHeader.accept(COUNT_HEADER, Integer.toString(trace.getStatementCount()));
+        setHeader.accept(TIME_HEADER, SqlTracer.millis(trace.getTotalNanos()));
+    }
+}
@@ -0,0 +1,55 @@
+package com.spankinfresh.blog.sqltrace;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "blog.sql-trace.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlTraceConfiguration implements WebMvcConfigurer {
+
+    private final SqlTracer sqlTracer;
+    private final boolean responseHeaders;
+
+    public SqlTraceConfiguration(SqlTracer sqlTracer,
+                                 @Value("${blog.sql-trace.response-headers:false}") boolean responseHeaders) {
+        this.sqlTracer = sqlTracer;
+        this.responseHeaders = responseHeaders;
+    }
+
+    @Bean
+    public static SqlTracer sqlTracer(@Value("${blog.sql-trace.slow-query-ms:200}") long slowQueryMillis,
+                                      @Value("${blog.sql-trace.repeated-statement-threshold:10}") int repeatedStatementThreshold) {
+        return new SqlTracer(slowQueryMillis, repeatedStatementThreshold);
+    }
+
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor(ObjectProvider<SqlTracer> sqlTracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof TracingDataSource)) {
+                    return new TracingDataSource((DataSource) bean, sqlTracer.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlTraceFilter sqlTraceFilter() {
+        return new SqlTraceFilter(sqlTracer);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlTraceInterceptor(sqlTracer, responseHeaders)).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,50 @@
+package com.spankinfresh.blog.sqltrace;
+
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Opens a {@link RequestTrace} for every request. The caller's {@code X-Request-Id} is kept when it
+ * is a plain token, otherwise one is generated; either way it is echoed in the response and put in
+ * the logging context as {@code requestId}.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlTraceFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final SqlTracer tracer;
+
+    public SqlTraceFilter(SqlTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        RequestTrace trace = tracer.begin(requestId);
+        MDC.put("requestId", requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove("requestId");
+            tracer.end(trace);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.spankinfresh.blog.sqltrace;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Names the controller method serving the request so its statements can be attributed to it, and
+ * adds the SQL count header for handlers that complete without writing a body.
+ */
+class SqlTraceInterceptor implements HandlerInterceptor {
+
+    private final SqlTracer tracer;
+    private final boolean responseHeaders;
+
+    SqlTraceInterceptor(SqlTracer tracer, boolean responseHeaders) {
+        this.tracer = tracer;
+        this.responseHeaders = responseHeaders;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTrace trace = tracer.current();
+        if (trace != null && handler instanceof HandlerMethod) {
+            HandlerMethod method = (HandlerMethod) handler;
+            trace.setHandler(method.getBeanType().getSimpleName() + "#" + method.getMethod().getName());
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        RequestTrace trace = tracer.current();
+        if (responseHeaders && trace != null && !response.isCommitted()) {
+            SqlCountResponseAdvice.addHeaders(trace, response::setHeader);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.spankinfresh.blog.sqltrace;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Receives every statement from {@link TracingDataSource} and ties it to the request being served
+ * on the current thread. Slow statements are logged as they finish; statements repeated within one
+ * request, the usual sign of an N+1 query, are logged when the request ends. Log lines are
+ * {@code key=value} pairs so they can be searched and aggregated.
+ */
+public class SqlTracer {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlTracer.class);
+    private static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|\\b\\d+\\b");
+
+    private final long slowQueryNanos;
+    private final int repeatedStatementThreshold;
+    private final ThreadLocal<RequestTrace> current = new ThreadLocal<>();
+
+    public SqlTracer(long slowQueryMillis, int repeatedStatementThreshold) {
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    public RequestTrace begin(String requestId) {
+        RequestTrace trace = new RequestTrace(requestId);
+        current.set(trace);
+        return trace;
+    }
+
+    public RequestTrace current() {
+        return current.get();
+    }
+
+    public void end(RequestTrace trace) {
+        current.remove();
+        for (Map.Entry<String, RequestTrace.Repeats> entry : trace.getBySql().entrySet()) {
+            RequestTrace.Repeats repeats = entry.getValue();
+            if (repeats.count >= repeatedStatementThreshold) {
+                log.warn("repeated_statement request_id={} handler={} count={} total_ms={} sql=\"{}\"",
+                        trace.getRequestId(), trace.getHandler(), repeats.count, millis(repeats.nanos), entry.getKey());
+            }
+        }
+    }
+
+    void statementFinished(String sql, String parameters, long elapsedNanos, long rows) {
+        RequestTrace trace = current.get();
+        if (trace != null) {
+            trace.record(normalize(sql), elapsedNanos);
+        }
+        String requestId = trace == null ? "-" : trace.getRequestId();
+        String handler = trace == null ? "-" : trace.getHandler();
+        if (elapsedNanos >= slowQueryNanos) {
+            log.warn("slow_query request_id={} handler={} elapsed_ms={} rows={} params={} sql=\"{}\"",
+                    requestId, handler, millis(elapsedNanos), rows, parameters, sql);
+        } else if (log.isDebugEnabled()) {
+            log.debug("statement request_id={} handler={} elapsed_ms={} rows={} params={} sql=\"{}\"",
+                    requestId, handler, millis(elapsedNanos), rows, parameters, sql);
+        }
+    }
+
+    static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Replaces inline literals so the same statement with different values counts as a repeat.
+     */
+    private static String normalize(String sql) {
+        return LITERALS.matcher(sql).replaceAll("?");
+    }
+}
@@ -0,0 +1,257 @@
+package com.spankinfresh.blog.sqltrace;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * Wraps the pool so every statement reports its SQL, elapsed time, row count and the types of its
+ * bind parameters to the {@link SqlTracer}. Parameter values are never recorded. A query is
+ * reported once its result set is closed, so the row count reflects what was actually read.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private final SqlTracer tracer;
+
+    public TracingDataSource(DataSource target, SqlTracer tracer) {
+        super(target);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return method.getName().equals("equals") ? (Object) (proxy == args[0]) : System.identityHashCode(proxy);
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return (method.getName().equals("equals") && method.getParameterCount() == 1)
+                || (method.getName().equals("hashCode") && method.getParameterCount() == 0);
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            Object result = TracingDataSource.invoke(target, method, args);
+            switch (method.getName()) {
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler((Statement) result, null));
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class,
+                            new StatementHandler((Statement) result, (String) args[0]));
+                case "prepareCall":
+                    return proxy(CallableStatement.class,
+                            new StatementHandler((Statement) result, (String) args[0]));
+                default:
+                    return result;
+            }
+        }
+    }
+
+    /**
+     * One execution being timed; finished when its result set or statement is closed, or when
+     * the statement is executed again, whichever comes first.
+     */
+    private final class Execution {
+
+        private final String sql;
+        private final String parameters;
+        private final long elapsedNanos;
+        private long rows;
+        private boolean finished;
+
+        Execution(String sql, String parameters, long elapsedNanos, long rows) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.elapsedNanos = elapsedNanos;
+            this.rows = rows;
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                tracer.statementFinished(sql, parameters, elapsedNanos, rows);
+            }
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final Map<Integer, String> parameters = new TreeMap<>();
+        private int batchSize;
+        private Execution pending;
+
+        StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.put((Integer) args[0], parameterType(name, args[1]));
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+            } else if (name.equals("close")) {
+                finishPending();
+            }
+            Object result = TracingDataSource.invoke(target, method, args);
+            if (name.equals("getResultSet") && result != null && pending != null) {
+                return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, pending));
+            }
+            return result;
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finishPending();
+            String name = method.getName();
+            String sql = preparedSql != null || args == null || args.length == 0 ? preparedSql : (String) args[0];
+            String shape = describeParameters();
+            long start = System.nanoTime();
+            Object result = TracingDataSource.invoke(target, method, args);
+            long elapsed = System.nanoTime() - start;
+            switch (name) {
+                case "executeQuery":
+                    pending = new Execution(sql, shape, elapsed, 0);
+                    return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, pending));
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                    new Execution(sql, shape, elapsed, ((Number) result).longValue()).finish();
+                    return result;
+                case "executeBatch":
+                case "executeLargeBatch":
+                    new Execution(sql, shape + " x " + batchSize, elapsed, batchRows(result)).finish();
+                    batchSize = 0;
+                    return result;
+                default:
+                    if (Boolean.TRUE.equals(result)) {
+                        pending = new Execution(sql, shape, elapsed, 0);
+                    } else {
+                        new Execution(sql, shape, elapsed, Math.max(target.getUpdateCount(), 0)).finish();
+                    }
+                    return result;
+            }
+        }
+
+        private void finishPending() {
+            if (pending != null) {
+                pending.finish();
+                pending = null;
+            }
+        }
+
+        private String describeParameters() {
+            StringJoiner shape = new StringJoiner(", ", "(", ")");
+            parameters.values().forEach(shape::add);
+            return shape.toString();
+        }
+
+        private String parameterType(String setter, Object value) {
+            if (setter.equals("setNull") || value == null) {
+                return "null";
+            }
+            return value.getClass().getSimpleName();
+        }
+
+        private long batchRows(Object result) {
+            long rows = 0;
+            if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final Execution execution;
+
+        ResultSetHandler(ResultSet target, Execution execution) {
+            this.target = target;
+            this.execution = execution;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            if (method.getName().equals("close")) {
+                execution.finish();
+            }
+            Object result = TracingDataSource.invoke(target, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                execution.rows++;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.spankinfresh.blog.upload;
+
+import java.io.IOException;
+
+/**
+ * Thrown while reading a request body that turns out to be longer than allowed.
+ */
+public class PayloadTooLargeException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PayloadTooLargeException(long maxBytes) {
+        super("Request body exceeds " + maxBytes + " bytes");
+    }
+}
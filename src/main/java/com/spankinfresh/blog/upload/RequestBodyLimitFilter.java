@@ -0,0 +1,159 @@
+package com.spankinfresh.blog.upload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bounds the memory that request bodies can claim before they reach the JSON binder. A declared
+ * {@code Content-Length} over the limit is refused with 413 before any of the body is read; a
+ * chunked body is cut off as soon as it passes the limit. Every body also reserves its size from
+ * a shared budget, so a burst of large uploads is answered with 503 instead of being bound into
+ * memory all at once.
+ */
+@Component
+public class RequestBodyLimitFilter extends OncePerRequestFilter {
+
+    private final long maxRequestBytes;
+    private final int budgetBytes;
+    private final Semaphore budget;
+    private final Counter rejectedTooLarge;
+    private final Counter rejectedBudget;
+
+    public RequestBodyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${blog.upload.max-request-bytes:4194304}") int maxRequestBytes,
+                                  @Value("${blog.upload.memory-budget-bytes:67108864}") int budgetBytes) {
+        if (budgetBytes < maxRequestBytes) {
+            throw new IllegalArgumentException("blog.upload.memory-budget-bytes must be at least blog.upload.max-request-bytes");
+        }
+        this.maxRequestBytes = maxRequestBytes;
+        this.budgetBytes = budgetBytes;
+        this.budget = new Semaphore(budgetBytes);
+        this.rejectedTooLarge = Counter.builder("blog.uploads.rejected").tag("reason", "too_large")
+                .description("Request bodies refused before binding").register(meterRegistry);
+        this.rejectedBudget = Counter.builder("blog.uploads.rejected").tag("reason", "memory_budget")
+                .description("Request bodies refused before binding").register(meterRegistry);
+        Gauge.builder("blog.uploads.reserved.bytes", this, filter -> filter.budgetBytes - filter.budget.availablePermits())
+                .description("Bytes reserved by request bodies currently being read")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long declaredLength = request.getContentLengthLong();
+        if (declaredLength > maxRequestBytes) {
+            rejectedTooLarge.increment();
+            response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            response.setHeader(HttpHeaders.CONNECTION, "close");
+            return;
+        }
+        int reservation = (int) (declaredLength < 0 ? maxRequestBytes : declaredLength);
+        if (!budget.tryAcquire(reservation)) {
+            rejectedBudget.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        try {
+            filterChain.doFilter(new LimitedRequest(request, maxRequestBytes, rejectedTooLarge), response);
+        } finally {
+            budget.release(reservation);
+        }
+    }
+
+    private static final class LimitedRequest extends HttpServletRequestWrapper {
+        private final long maxBytes;
+        private final Counter rejected;
+        private ServletInputStream inputStream;
+
+        LimitedRequest(HttpServletRequest request, long maxBytes, Counter rejected) {
+            super(request);
+            this.maxBytes = maxBytes;
+            this.rejected = rejected;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new LimitedInputStream(super.getInputStream(), maxBytes, rejected);
+            }
+            return inputStream;
+        }
+    }
+
+    private static final class LimitedInputStream extends ServletInputStream {
+        private final ServletInputStream delegate;
+        private final long maxBytes;
+        private final Counter rejected;
+        private long bytesRead;
+
+        LimitedInputStream(ServletInputStream delegate, long maxBytes, Counter rejected) {
+            this.delegate = delegate;
+            this.maxBytes = maxBytes;
+            this.rejected = rejected;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = delegate.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+
+        private void count(int n) throws PayloadTooLargeException {
+            bytesRead += n;
+            if (bytesRead > maxBytes) {
+                rejected.increment();
+                throw new PayloadTooLargeException(maxBytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.spankinfresh.blog.views;
+
+import com.spankinfresh.blog.data.ArticleViewCountJdbcTemplateRepository;
+import com.spankinfresh.blog.domain.PopularArticle;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts article reads in memory and periodically adds them to the {@code article_view_count}
+ * table in one batch. Recording a view is a map lookup plus a {@link LongAdder} increment, so
+ * concurrent readers of the same article do not contend. The most-read list is recomputed on
+ * each flush and served from memory.
+ */
+@Component
+public class ArticleViewCounter implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleViewCounter.class);
+    private static final Comparator<Map.Entry<Long, Long>> BY_VIEWS =
+            Map.Entry.<Long, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+
+    private final ArticleViewCountJdbcTemplateRepository viewCountRepository;
+    private final int popularSize;
+    private final ConcurrentMap<Long, PendingViews> pending = new ConcurrentHashMap<>();
+    private final Map<Long, Long> totals = new HashMap<>();
+    private final LongAdder recorded = new LongAdder();
+    private volatile List<PopularArticle> popular = Collections.emptyList();
+
+    public ArticleViewCounter(ArticleViewCountJdbcTemplateRepository viewCountRepository,
+                              @Value("${blog.views.popular-size:20}") int popularSize) {
+        this.viewCountRepository = viewCountRepository;
+        this.popularSize = popularSize;
+    }
+
+    public void recordView(long articleId) {
+        PendingViews views = pending.get(articleId);
+        if (views == null) {
+            views = pending.computeIfAbsent(articleId, id -> new PendingViews());
+        }
+        views.count.increment();
+        recorded.increment();
+    }
+
+    public List<PopularArticle> getPopular() {
+        return popular;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadTotals() {
+        try {
+            totals.putAll(viewCountRepository.getAllViewCounts());
+            refreshPopular();
+        } catch (DataAccessException e) {
+            log.warn("Could not load stored view counts; most-read list starts empty", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${blog.views.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        Map<Long, Long> deltas = new HashMap<>();
+        pending.forEach((articleId, views) -> {
+            // the adder is never reset, so increments racing with the flush are picked up next time
+            long delta = views.count.sum() - views.flushed;
+            if (delta > 0) {
+                deltas.put(articleId, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            viewCountRepository.addViewCounts(deltas);
+        } catch (DataAccessException e) {
+            log.warn("Could not flush {} view counts; will retry", deltas.size(), e);
+            return;
+        }
+        deltas.forEach((articleId, delta) -> {
+            PendingViews views = pending.get(articleId);
+            if (views != null) {
+                views.flushed += delta;
+            }
+            totals.merge(articleId, delta, Long::sum);
+        });
+        refreshPopular();
+    }
+
+    @EventListener
+    public synchronized void onArticleChanged(ArticleChangedEvent event) {
+        if (event.getType() != ArticleChangedEvent.Type.DELETED) {
+            return;
+        }
+        long articleId = event.getArticleId();
+        pending.remove(articleId);
+        if (totals.remove(articleId) != null) {
+            try {
+                viewCountRepository.deleteViewCount(articleId);
+            } catch (DataAccessException e) {
+                log.warn("Could not delete view count of article {}", articleId, e);
+            }
+            refreshPopular();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("blog.views.recorded", recorded, LongAdder::sum)
+                .description("Article reads counted")
+                .register(registry);
+    }
+
+    private void refreshPopular() {
+        PriorityQueue<Map.Entry<Long, Long>> top = new PriorityQueue<>(popularSize + 1, BY_VIEWS);
+        for (Map.Entry<Long, Long> entry : totals.entrySet()) {
+            if (top.size() < popularSize) {
+                top.add(Map.entry(entry.getKey(), entry.getValue()));
+            } else if (BY_VIEWS.compare(entry, top.peek()) > 0) {
+                top.poll();
+                top.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        List<Map.Entry<Long, Long>> ranked = new ArrayList<>(top);
+        ranked.sort(BY_VIEWS.reversed());
+        List<Long> ids = new ArrayList<>(ranked.size());
+        ranked.forEach(entry -> ids.add(entry.getKey()));
+        Map<Long, PopularArticle> summaries;
+        try {
+            summaries = viewCountRepository.getSummariesByIds(ids);
+        } catch (DataAccessException e) {
+            log.warn("Could not load titles for the most-read list; keeping the previous list", e);
+            return;
+        }
+        List<PopularArticle> result = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Long> entry : ranked) {
+            PopularArticle summary = summaries.get(entry.getKey());
+            if (summary != null) {
+                summary.setViews(entry.getValue());
+                result.add(summary);
+            }
+        }
+        popular = Collections.unmodifiableList(result);
+    }
+
+    private static final class PendingViews {
+        private final LongAdder count = new LongAdder();
+        private long flushed;
+    }
+}
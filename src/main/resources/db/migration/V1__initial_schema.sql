@@ -0,0 +1,17 @@
+create table author (
+    id bigserial primary key,
+    email_address varchar(255),
+    first_name varchar(80),
+    last_name varchar(80)
+);
+
+create table blog_post (
+    id bigserial primary key,
+    category varchar(200),
+    content varchar(500000),
+    date_posted timestamp,
+    title varchar(200),
+    author_id bigint not null references author (id)
+);
+
+create index blog_post_category_date_posted_idx on blog_post (category, date_posted desc);
@@ -0,0 +1,4 @@
+create table article_view_count (
+    article_id bigint primary key,
+    views bigint not null
+);
@@ -0,0 +1,22 @@
+create table category (
+    id bigserial primary key,
+    category_name varchar(200) not null unique
+);
+
+insert into category (category_name)
+select distinct coalesce(category, 'Uncategorized') from blog_post order by 1;
+
+alter table blog_post add column category_id bigint references category (id);
+
+update blog_post p
+set category_id = c.id
+from category c
+where c.category_name = coalesce(p.category, 'Uncategorized');
+
+alter table blog_post alter column category_id set not null;
+
+-- databases created by Hibernate and baselined at V1 never had this index
+drop index if exists blog_post_category_date_posted_idx;
+alter table blog_post drop column category;
+
+create index blog_post_category_id_date_posted_idx on blog_post (category_id, date_posted desc);
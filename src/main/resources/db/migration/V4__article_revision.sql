@@ -0,0 +1,12 @@
+create table article_revision (
+    id bigserial primary key,
+    article_id bigint not null,
+    revision integer not null,
+    created_at timestamp not null,
+    title varchar(200) not null,
+    category_name varchar(200) not null,
+    snapshot boolean not null,
+    content_length integer not null,
+    data bytea not null,
+    constraint article_revision_article_id_revision_key unique (article_id, revision)
+);
@@ -0,0 +1,8 @@
+alter table blog_post add column published boolean not null default true;
+alter table blog_post add column publish_at timestamp;
+
+-- reads only ever see published rows, so the indexes leave scheduled ones out
+drop index blog_post_category_id_date_posted_idx;
+create index blog_post_category_id_date_posted_idx on blog_post (category_id, date_posted desc) where published;
+create index blog_post_date_posted_idx on blog_post (date_posted desc) where published;
+create index blog_post_publish_at_idx on blog_post (publish_at) where not published;
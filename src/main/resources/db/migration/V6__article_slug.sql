@@ -0,0 +1,9 @@
+-- existing articles are given slugs by the application the first time it starts
+alter table blog_post add column slug varchar(100);
+create unique index blog_post_slug_key on blog_post (slug);
+
+create table article_slug_redirect (
+    slug varchar(100) primary key,
+    article_id bigint not null references blog_post (id) on delete cascade
+);
+create index article_slug_redirect_article_id_idx on article_slug_redirect (article_id);
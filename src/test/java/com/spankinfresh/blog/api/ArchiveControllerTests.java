@@ -0,0 +1,111 @@
+package com.spankinfresh.blog.api;
+
+import com.spankinfresh.blog.archive.ArchiveRollups;
+import com.spankinfresh.blog.domain.Author;
+import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import com.spankinfresh.blog.events.AuthorChangedEvent;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "blog.archive.rebuild-parallelism=2")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ArchiveControllerTests {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeAll
+    void buildRollups(@Autowired JdbcTemplate jdbcTemplate, @Autowired ArchiveRollups archiveRollups) {
+        jdbcTemplate.update("insert into author (id, first_name, last_name, email_address) values " +
+                "(1, 'Ada', 'Baker', 'ada@example.com'), (2, 'Bo', 'Carter', 'bo@example.com')");
+        jdbcTemplate.update("insert into category (id, category_name) values (1, 'Recipes'), (2, 'News')");
+        jdbcTemplate.update("insert into blog_post (id, category_id, author_id, date_posted, title, content) values " +
+                "(1, 1, 1, '2022-06-30 10:00:00', 'Peach Cobbler', 'a'), " +
+                "(2, 1, 1, '2022-07-02 10:00:00', 'Plum Jam', 'b'), " +
+                "(3, 2, 2, '2022-07-03 10:00:00', 'Market Hours', 'c'), " +
+                "(40, 2, 1, '2022-07-04 10:00:00', 'Closed Monday', 'd')");
+        archiveRollups.rebuild();
+    }
+
+    @Test
+    @DisplayName("T01 - Counts per month, category and author come from the rebuilt rollups")
+    public void test_01(@Autowired MockMvc mockMvc) throws Exception {
+        mockMvc.perform(get("/api/archive/months"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].year").value(2022))
+                .andExpect(jsonPath("$[0].month").value(7))
+                .andExpect(jsonPath("$[0].count").value(3))
+                .andExpect(jsonPath("$[1].month").value(6))
+                .andExpect(jsonPath("$[1].count").value(1));
+        mockMvc.perform(get("/api/archive/categories"))
+                .andExpect(jsonPath("$[0].category").value("News"))
+                .andExpect(jsonPath("$[0].count").value(2))
+                .andExpect(jsonPath("$[1].category").value("Recipes"))
+                .andExpect(jsonPath("$[1].count").value(2));
+        mockMvc.perform(get("/api/archive/authors"))
+                .andExpect(jsonPath("$[0].authorId").value(1))
+                .andExpect(jsonPath("$[0].lastName").value("Baker"))
+                .andExpect(jsonPath("$[0].count").value(3))
+                .andExpect(jsonPath("$[1].count").value(1));
+    }
+
+    @Test
+    @DisplayName("T02 - Updates move an article between buckets and deletes remove it")
+    public void test_02(@Autowired MockMvc mockMvc) throws Exception {
+        Author author = new Author(2L, null, null, null);
+        eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.UPDATED,
+                new BlogPost(1L, "Preserves", LocalDateTime.of(2022, 8, 1, 9, 0), "Peach Cobbler", "a", author)));
+        eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.DELETED,
+                new BlogPost(40L, "News", LocalDateTime.of(2022, 7, 4, 10, 0), "Closed Monday", "d", null)));
+
+        mockMvc.perform(get("/api/archive/months"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].month").value(8))
+                .andExpect(jsonPath("$[1].count").value(2));
+        mockMvc.perform(get("/api/archive/categories"))
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[1].category").value("Preserves"));
+        mockMvc.perform(get("/api/archive/authors"))
+                .andExpect(jsonPath("$[0].authorId").value(2))
+                .andExpect(jsonPath("$[0].firstName").value("Bo"))
+                .andExpect(jsonPath("$[0].count").value(2))
+                .andExpect(jsonPath("$[1].count").value(1));
+
+        eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.UPDATED,
+                new BlogPost(1L, "Recipes", LocalDateTime.of(2022, 6, 30, 10, 0), "Peach Cobbler", "a", new Author(1L, null, null, null))));
+        eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.CREATED,
+                new BlogPost(40L, "News", LocalDateTime.of(2022, 7, 4, 10, 0), "Closed Monday", "d", new Author(1L, null, null, null))));
+        test_01(mockMvc);
+    }
+
+    @Test
+    @DisplayName("T03 - Renaming an author renames their archive entry")
+    public void test_03(@Autowired MockMvc mockMvc) throws Exception {
+        eventPublisher.publishEvent(new AuthorChangedEvent(AuthorChangedEvent.Type.UPDATED,
+                new Author(1L, "Ada", "Dunn", "ada@example.com")));
+        mockMvc.perform(get("/api/archive/authors"))
+                .andExpect(jsonPath("$[0].authorId").value(1))
+                .andExpect(jsonPath("$[0].lastName").value("Dunn"));
+
+        eventPublisher.publishEvent(new AuthorChangedEvent(AuthorChangedEvent.Type.UPDATED,
+                new Author(1L, "Ada", "Baker", "ada@example.com")));
+        test_01(mockMvc);
+    }
+}
@@ -0,0 +1,112 @@
+package com.spankinfresh.blog.api;
+
+import com.spankinfresh.blog.data.BlogPostJdbcTemplateRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ArticleBatchTests {
+
+    @BeforeAll
+    void insertArticles(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into author (id, first_name, last_name, email_address) values " +
+                "(201, 'Ada', 'Baker', 'ada@example.com')");
+        jdbcTemplate.update("insert into category (id, category_name) values (201, 'Recipes')");
+        jdbcTemplate.update("insert into blog_post (id, category_id, author_id, date_posted, title, content, published) values " +
+                "(201, 201, 201, '2022-06-30 10:00:00', 'Peach Cobbler', 'a', true), " +
+                "(202, 201, 201, '2022-07-02 10:00:00', 'Plum Jam', 'b', true), " +
+                "(203, 201, 201, '2022-07-03 10:00:00', 'Market Hours', 'c', true), " +
+                "(204, 201, 201, '2030-01-01 10:00:00', 'Not Yet', 'd', false)");
+    }
+
+    @AfterAll
+    void deleteArticles(@Autowired JdbcTemplate jdbcTemplate) {
+        // the context, and with it the database, is shared with other test classes
+        jdbcTemplate.update("delete from blog_post where id between 201 and 204");
+        jdbcTemplate.update("delete from category where id = 201");
+        jdbcTemplate.update("delete from author where id = 201");
+    }
+
+    @Test
+    @DisplayName("T01 - Requested articles come back in request order with only the requested fields")
+    public void test_01(@Autowired MockMvc mockMvc) throws Exception {
+        mockMvc.perform(get("/api/articles").param("ids", "203,201,204,999,201").param("fields", "title,id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(203))
+                .andExpect(jsonPath("$[0].title").value("Market Hours"))
+                .andExpect(jsonPath("$[1].id").value(201))
+                .andExpect(jsonPath("$[0].content").doesNotExist())
+                .andExpect(jsonPath("$[0].author").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("T02 - Without fields the whole article is returned; unknown fields and too many ids are refused")
+    public void test_02(@Autowired MockMvc mockMvc) throws Exception {
+        mockMvc.perform(get("/api/articles").param("ids", "202"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].category").value("Recipes"))
+                .andExpect(jsonPath("$[0].datePosted").value("2022-07-02T10:00:00"))
+                .andExpect(jsonPath("$[0].content").value("b"))
+                .andExpect(jsonPath("$[0].author.lastName").value("Baker"));
+        mockMvc.perform(get("/api/articles").param("ids", "202").param("fields", "title,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldErrors.fields").exists());
+        String tooMany = IntStream.rangeClosed(1, ArticleBatchController.MAX_IDS + 1)
+                .mapToObj(Integer::toString).collect(Collectors.joining(","));
+        mockMvc.perform(get("/api/articles").param("ids", tooMany))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldErrors.ids").exists());
+    }
+
+    @Test
+    @DisplayName("T03 - Only the columns and joins of the requested fields are selected")
+    public void test_03(@Autowired DataSource dataSource) {
+        BlogPostJdbcTemplateRepository repository = new BlogPostJdbcTemplateRepository();
+        repository.setDataSource(dataSource);
+        NamedParameterJdbcTemplate namedParameterJdbcTemplate = spy(new NamedParameterJdbcTemplate(dataSource));
+        ReflectionTestUtils.setField(repository, "namedParameterJdbcTemplate", namedParameterJdbcTemplate);
+
+        List<Map<String, Object>> articles = repository.getArticlesByIds(List.of(203L, 201L), Set.of("title"));
+        assertEquals(List.of(Map.of("id", 203L, "title", "Market Hours"), Map.of("id", 201L, "title", "Peach Cobbler")), articles);
+        verify(namedParameterJdbcTemplate).query(
+                eq("select p.id, p.title from blog_post p where p.id in (:ids) and p.published = true"),
+                any(SqlParameterSource.class), any(RowCallbackHandler.class));
+
+        repository.getArticlesByIds(List.of(202L), Set.of("category", "title"));
+        verify(namedParameterJdbcTemplate).query(
+                eq("select p.id, c.category_name, p.title from blog_post p " +
+                        "join category c on c.id = p.category_id where p.id in (:ids) and p.published = true"),
+                any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    }
+}
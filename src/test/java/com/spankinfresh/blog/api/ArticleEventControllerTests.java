@@ -0,0 +1,84 @@
+package com.spankinfresh.blog.api;
+
+import com.spankinfresh.blog.domain.Author;
+import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(properties = "blog.events.history-size=4")
+@AutoConfigureMockMvc
+public class ArticleEventControllerTests {
+
+    private static final String RESOURCE_URI = "/api/articles/events";
+    private static final Author savedAuthor = new Author(1L, "Jane", "Doe", "jane@doe.com");
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    @DisplayName("T01 - Reconnecting client receives the events it missed without content")
+    public void test_01(@Autowired MockMvc mockMvc) throws Exception {
+        MvcResult first = mockMvc.perform(get(RESOURCE_URI)).andExpect(request().asyncStarted()).andReturn();
+        publish(ArticleChangedEvent.Type.CREATED, "first title");
+        String firstStream = awaitContent(first.getResponse(), "first title");
+        String lastId = firstStream.substring(firstStream.lastIndexOf("id:") + 3, firstStream.indexOf('\n', firstStream.lastIndexOf("id:"))).trim();
+        publish(ArticleChangedEvent.Type.UPDATED, "second title");
+
+        MvcResult resumed = mockMvc.perform(get(RESOURCE_URI).header("Last-Event-ID", lastId))
+                .andExpect(request().asyncStarted()).andReturn();
+        String resumedStream = awaitContent(resumed.getResponse(), "second title");
+        assertTrue(resumedStream.contains("event:article-updated"));
+        assertFalse(resumedStream.contains("first title"));
+        assertFalse(resumedStream.contains("secret content"));
+    }
+
+    @Test
+    @DisplayName("T02 - Client further behind than the history is told to reset")
+    public void test_02(@Autowired MockMvc mockMvc) throws Exception {
+        for (int i = 0; i < 6; i++) {
+            publish(ArticleChangedEvent.Type.CREATED, "title " + i);
+        }
+        MvcResult result = mockMvc.perform(get(RESOURCE_URI).header("Last-Event-ID", "0"))
+                .andExpect(request().asyncStarted()).andReturn();
+        awaitContent(result.getResponse(), "event:reset");
+    }
+
+    @Test
+    @DisplayName("T03 - Client ahead of the history, e.g. after a restart, is told to reset")
+    public void test_03(@Autowired MockMvc mockMvc) throws Exception {
+        MvcResult result = mockMvc.perform(get(RESOURCE_URI).header("Last-Event-ID", "1000000"))
+                .andExpect(request().asyncStarted()).andReturn();
+        awaitContent(result.getResponse(), "event:reset");
+    }
+
+    private void publish(ArticleChangedEvent.Type type, String title) {
+        eventPublisher.publishEvent(new ArticleChangedEvent(type,
+                new BlogPost(7L, "category", LocalDateTime.now(), title, "secret content", savedAuthor)));
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        assertTrue(content.contains(expected), content);
+        return content;
+    }
+}
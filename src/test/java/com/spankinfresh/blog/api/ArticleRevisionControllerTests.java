@@ -0,0 +1,60 @@
+package com.spankinfresh.blog.api;
+
+import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ArticleRevisionControllerTests {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private void publish(ArticleChangedEvent.Type type, String title, String content) {
+        eventPublisher.publishEvent(new ArticleChangedEvent(type,
+                new BlogPost(42L, "Recipes", LocalDateTime.of(2022, 7, 1, 10, 0), title, content, null)));
+    }
+
+    @Test
+    @DisplayName("T01 - Creating and updating an article records revisions that can be read back")
+    public void test_01(@Autowired MockMvc mockMvc) throws Exception {
+        String original = "Peaches, butter and flour. ".repeat(200);
+        publish(ArticleChangedEvent.Type.CREATED, "Peach Cobbler", original);
+        publish(ArticleChangedEvent.Type.UPDATED, "Peach Cobbler", original + "Serve warm.");
+
+        mockMvc.perform(get("/api/articles/42/revisions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].revision").value(2))
+                .andExpect(jsonPath("$[0].snapshot").value(false))
+                .andExpect(jsonPath("$[0].content").value(nullValue()))
+                .andExpect(jsonPath("$[1].snapshot").value(true));
+        mockMvc.perform(get("/api/articles/42/revisions/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").value(original));
+        mockMvc.perform(get("/api/articles/42/revisions/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Peach Cobbler"))
+                .andExpect(jsonPath("$.content").value(original + "Serve warm."));
+        mockMvc.perform(get("/api/articles/42/revisions/3"))
+                .andExpect(status().isNotFound());
+
+        publish(ArticleChangedEvent.Type.DELETED, "Peach Cobbler", null);
+        mockMvc.perform(get("/api/articles/42/revisions"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,143 @@
+package com.spankinfresh.blog.api;
+
+import com.jayway.jsonpath.JsonPath;
+import com.spankinfresh.blog.data.SlugJdbcTemplateRepository;
+import com.spankinfresh.blog.slugs.SlugIndex;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"blog.slugs.rebuild-parallelism=2", "blog.slugs.miss-ttl-ms=1000"})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ArticleSlugTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @SpyBean
+    private SlugJdbcTemplateRepository slugRepository;
+
+    @BeforeAll
+    void buildIndex(@Autowired SlugIndex slugIndex) {
+        jdbcTemplate.update("insert into author (id, first_name, last_name, email_address) values " +
+                "(101, 'Ada', 'Baker', 'ada@example.com')");
+        jdbcTemplate.update("insert into category (id, category_name) values (101, 'Recipes')");
+        jdbcTemplate.update("insert into blog_post (id, category_id, author_id, date_posted, title, content, published) values " +
+                "(101, 101, 101, '2022-06-30 10:00:00', 'Peach Cobbler', 'a', true), " +
+                "(102, 101, 101, '2022-07-02 10:00:00', 'Peach Cobbler', 'b', true), " +
+                "(103, 101, 101, '2022-07-03 10:00:00', 'Crème Brûlée!', 'c', true), " +
+                "(104, 101, 101, '2030-01-01 10:00:00', 'Plum Jam', 'd', false)");
+        slugIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("T01 - Existing articles are given unique slugs at startup and resolved by slug")
+    public void test_01(@Autowired MockMvc mockMvc) throws Exception {
+        mockMvc.perform(get("/api/articles/by-slug/peach-cobbler"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(101))
+                .andExpect(jsonPath("$[0].slug").value("peach-cobbler"));
+        mockMvc.perform(get("/api/articles/by-slug/peach-cobbler-2")).andExpect(jsonPath("$[0].id").value(102));
+        mockMvc.perform(get("/api/articles/by-slug/creme-brulee")).andExpect(jsonPath("$[0].id").value(103));
+        mockMvc.perform(get("/api/articles/by-slug/plum-jam")).andExpect(status().isNotFound());
+        assertEquals("plum-jam", jdbcTemplate.queryForObject("select slug from blog_post where id = 104", String.class));
+    }
+
+    @Test
+    @DisplayName("T02 - Renaming an article redirects its old slug; deleting it removes both")
+    public void test_02(@Autowired MockMvc mockMvc) throws Exception {
+        String created = mockMvc.perform(post("/api/articles")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"category\":\"Recipes\",\"title\":\"Peach Cobbler\",\"content\":\"e\"," +
+                                "\"slug\":\"ignored\",\"author\":{\"id\":101}}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.slug").value("peach-cobbler-3"))
+                .andReturn().getResponse().getContentAsString();
+        int id = JsonPath.read(created, "$.id");
+
+        mockMvc.perform(put("/api/articles/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + id + ",\"category\":\"Recipes\",\"title\":\"Peach Crumble\",\"content\":\"e\"," +
+                                "\"author\":{\"id\":101}}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/articles/by-slug/peach-cobbler-3"))
+                .andExpect(status().isMovedPermanently())
+                .andExpect(header().string("Location", "http://localhost/api/articles/by-slug/peach-crumble"));
+        mockMvc.perform(get("/api/articles/by-slug/peach-crumble")).andExpect(jsonPath("$[0].id").value(id));
+        assertEquals(id, jdbcTemplate.queryForObject(
+                "select article_id from article_slug_redirect where slug = 'peach-cobbler-3'", Integer.class));
+
+        mockMvc.perform(delete("/api/articles/" + id)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/articles/by-slug/peach-cobbler-3")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/articles/by-slug/peach-crumble")).andExpect(status().isNotFound());
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from article_slug_redirect", Integer.class));
+    }
+
+    @Test
+    @DisplayName("T03 - Slugs saved by another instance are found in the database and skipped when reserving")
+    public void test_03(@Autowired MockMvc mockMvc) throws Exception {
+        jdbcTemplate.update("insert into blog_post (id, category_id, author_id, date_posted, title, slug, content, published) values " +
+                "(105, 101, 101, '2022-07-04 10:00:00', 'Apricot Tart', 'apricot-tart', 'f', true), " +
+                "(106, 101, 101, '2022-07-05 10:00:00', 'Quince Tart', 'quince-tart', 'g', true)");
+        jdbcTemplate.update("insert into article_slug_redirect (slug, article_id) values ('apricot-pie', 105)");
+
+        mockMvc.perform(get("/api/articles/by-slug/apricot-tart")).andExpect(jsonPath("$[0].id").value(105));
+        mockMvc.perform(get("/api/articles/by-slug/apricot-pie"))
+                .andExpect(status().isMovedPermanently())
+                .andExpect(header().string("Location", "http://localhost/api/articles/by-slug/apricot-tart"));
+        mockMvc.perform(post("/api/articles")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"category\":\"Recipes\",\"title\":\"Quince Tart\",\"content\":\"h\"," +
+                                "\"author\":{\"id\":101}}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.slug").value("quince-tart-2"));
+        mockMvc.perform(get("/api/articles/by-slug/quince-tart")).andExpect(jsonPath("$[0].id").value(106));
+    }
+
+    @Test
+    @DisplayName("T04 - A slug missing from the database is not looked up again until the miss expires")
+    public void test_04(@Autowired MockMvc mockMvc) throws Exception {
+        mockMvc.perform(get("/api/articles/by-slug/fig-roll")).andExpect(status().isNotFound());
+        jdbcTemplate.update("insert into blog_post (id, category_id, author_id, date_posted, title, slug, content, published) values " +
+                "(107, 101, 101, '2022-07-06 10:00:00', 'Fig Roll', 'fig-roll', 'i', true)");
+        mockMvc.perform(get("/api/articles/by-slug/fig-roll")).andExpect(status().isNotFound());
+        Thread.sleep(1100);
+        mockMvc.perform(get("/api/articles/by-slug/fig-roll")).andExpect(jsonPath("$[0].id").value(107));
+    }
+
+    @Test
+    @DisplayName("T05 - Slugs another instance assigned during the same backfill win, and the index follows them")
+    public void test_05(@Autowired MockMvc mockMvc, @Autowired SlugIndex slugIndex) throws Exception {
+        jdbcTemplate.update("insert into blog_post (id, category_id, author_id, date_posted, title, content, published) values " +
+                "(108, 101, 101, '2022-07-07 10:00:00', 'Pear Tart', 'j', true)");
+        AtomicBoolean otherInstance = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (otherInstance.getAndSet(false)) {
+                jdbcTemplate.update("update blog_post set slug = 'pear-tart-9' where id = 108");
+            }
+            return invocation.callRealMethod();
+        }).when(slugRepository).assignSlugs(any(Map.class));
+        slugIndex.rebuild();
+
+        mockMvc.perform(get("/api/articles/by-slug/pear-tart-9")).andExpect(jsonPath("$[0].id").value(108));
+        mockMvc.perform(get("/api/articles/by-slug/pear-tart")).andExpect(status().isNotFound());
+        assertEquals("pear-tart-9", jdbcTemplate.queryForObject("select slug from blog_post where id = 108", String.class));
+    }
+}
@@ -2,14 +2,17 @@ package com.spankinfresh.blog.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.spankinfresh.blog.data.BlogPostRepository;
+import com.spankinfresh.blog.data.CategoryDictionary;
 import com.spankinfresh.blog.domain.Author;
 import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.slugs.SlugIndex;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
@@ -23,11 +26,12 @@ import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasItems;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "blog.content-store.capacity-bytes=0")
 @AutoConfigureMockMvc
 public class BlogPostControllerTests {
 
@@ -42,7 +46,7 @@ public class BlogPostControllerTests {
     @Test
     @DisplayName("T01 - POST accepts and returns blog post representation")
     public void postCreatesNewBlogEntry_Test(@Autowired MockMvc mockMvc) throws Exception {
-        when(mockRepository.save(refEq(testPosting, "datePosted", "author"))).thenReturn(savedPosting);
+        when(mockRepository.save(refEq(testPosting, "datePosted", "author", "categoryRef", "slug"))).thenReturn(savedPosting);
         MvcResult result = mockMvc.perform(post(RESOURCE_URI)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(testPosting)))
@@ -56,7 +60,7 @@ public class BlogPostControllerTests {
                 .andReturn();
         MockHttpServletResponse mockResponse = result.getResponse();
         assertEquals(String.format("http://localhost/api/articles/%d", savedPosting.getId()), mockResponse.getHeader("Location"));
-        verify(mockRepository, times(1)).save(refEq(testPosting, "datePosted", "author"));
+        verify(mockRepository, times(1)).save(refEq(testPosting, "datePosted", "author", "categoryRef", "slug"));
         verifyNoMoreInteractions(mockRepository);
     }
 
@@ -217,8 +221,9 @@ public class BlogPostControllerTests {
 
     @Test
     @DisplayName("T14 - Get by category name returns expected data")
-    public void test_14(@Autowired MockMvc mockMvc) throws Exception {
-        when(mockRepository.findByCategoryOrderByDatePostedDesc("foo")).thenReturn(Collections.singletonList(savedPosting));
+    public void test_14(@Autowired MockMvc mockMvc, @Autowired CategoryDictionary categoryDictionary) throws Exception {
+        long categoryId = categoryDictionary.resolve("foo").getId();
+        when(mockRepository.findByCategoryRefIdOrderByDatePostedDesc(categoryId)).thenReturn(Collections.singletonList(savedPosting));
         mockMvc.perform(get(RESOURCE_URI + "/category")
                         .param("categoryName", "foo"))
                 .andExpect(jsonPath("$.length()").value(1))
@@ -229,7 +234,7 @@ public class BlogPostControllerTests {
                 .andExpect(jsonPath("$.[0].category").value(savedPosting.getCategory()))
                 .andExpect(jsonPath("$.[0].content").value(savedPosting.getContent()))
                 .andExpect(status().isOk());
-        verify(mockRepository, times(1)).findByCategoryOrderByDatePostedDesc("foo");
+        verify(mockRepository, times(1)).findByCategoryRefIdOrderByDatePostedDesc(categoryId);
         verifyNoMoreInteractions(mockRepository);
     }
 
@@ -238,7 +243,52 @@ public class BlogPostControllerTests {
     public void test_15(@Autowired MockMvc mockMvc) throws Exception {
         mockMvc.perform(get(RESOURCE_URI + "/category"))
                 .andExpect(status().isBadRequest());
-        verify(mockRepository, never()).findByCategoryOrderByDatePostedDesc(anyString());
+        verify(mockRepository, never()).findByCategoryRefIdOrderByDatePostedDesc(anyLong());
         verifyNoMoreInteractions(mockRepository);
     }
+
+    @Test
+    @DisplayName("T16 - Content over the size limit is rejected while parsing")
+    public void test_16(@Autowired MockMvc mockMvc) throws Exception {
+        mockMvc.perform(post(RESOURCE_URI)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new BlogPost(0L, "category", null, "title", "x".repeat(500001), savedAuthor))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldErrors.content").value("Content is required"));
+        verify(mockRepository, never()).save(any(BlogPost.class));
+        verifyNoMoreInteractions(mockRepository);
+    }
+
+    @Test
+    @DisplayName("T17 - Request body over the upload limit is refused with 413")
+    public void test_17(@Autowired MockMvc mockMvc) throws Exception {
+        mockMvc.perform(post(RESOURCE_URI)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new BlogPost(0L, "category", null, "title", "x".repeat(4_200_000), savedAuthor))))
+                .andExpect(status().isPayloadTooLarge());
+        verify(mockRepository, never()).save(any(BlogPost.class));
+        verifyNoMoreInteractions(mockRepository);
+    }
+
+    @Test
+    @DisplayName("T18 - Get by unknown category name returns an empty list without a query")
+    public void test_18(@Autowired MockMvc mockMvc) throws Exception {
+        mockMvc.perform(get(RESOURCE_URI + "/category")
+                        .param("categoryName", "no such category"))
+                .andExpect(jsonPath("$.length()").value(0))
+                .andExpect(status().isOk());
+        verifyNoMoreInteractions(mockRepository);
+    }
+
+    @Test
+    @DisplayName("T19 - Slug reserved for an update that fails to save is given back")
+    public void test_19(@Autowired MockMvc mockMvc, @Autowired SlugIndex slugIndex) throws Exception {
+        when(mockRepository.existsById(11L)).thenReturn(true);
+        when(mockRepository.save(any(BlogPost.class))).thenThrow(new DataIntegrityViolationException("save failed"));
+        assertThrows(Exception.class, () -> mockMvc.perform(put(RESOURCE_URI + "/11")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new BlogPost(11L, "category", null, "Unsaved Title", "content", savedAuthor)))));
+        assertEquals("unsaved-title", slugIndex.reserve(0, "Unsaved Title"));
+        slugIndex.release("unsaved-title");
+    }
 }
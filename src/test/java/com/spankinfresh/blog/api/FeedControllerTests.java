@@ -0,0 +1,129 @@
+package com.spankinfresh.blog.api;
+
+import com.spankinfresh.blog.data.BlogPostJdbcTemplateRepository;
+import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import com.spankinfresh.blog.feed.ArticleFeeds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class FeedControllerTests {
+
+    @MockBean
+    BlogPostJdbcTemplateRepository mockRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    private static final BlogPost firstPosting = new BlogPost(1L, "Recipes", LocalDateTime.of(2022, 7, 1, 10, 0), "Peach Cobbler", null, null);
+    private static final BlogPost secondPosting = new BlogPost(2L, "News", LocalDateTime.of(2022, 7, 2, 10, 0), "Market Hours", null, null);
+
+    @BeforeEach
+    public void stubSummaries() {
+        when(mockRepository.getAllBlogPostingsOmittingContent()).thenReturn(Arrays.asList(secondPosting, firstPosting));
+    }
+
+    @Test
+    @DisplayName("T01 - RSS feed lists articles with links and validators")
+    public void test_01(@Autowired MockMvc mockMvc) throws Exception {
+        mockMvc.perform(get("/api/feeds/rss"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/rss+xml"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(content().string(containsString("<title>Peach Cobbler</title>")))
+                .andExpect(content().string(containsString("<link>http://localhost:3000/articles/2</link>")));
+        verify(mockRepository, atMost(1)).getAllBlogPostingsOmittingContent();
+    }
+
+    @Test
+    @DisplayName("T02 - Matching If-None-Match returns 304 without a body")
+    public void test_02(@Autowired MockMvc mockMvc) throws Exception {
+        String etag = mockMvc.perform(get("/api/feeds/atom"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/feeds/atom").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("T03 - Category feed only changes when one of its articles does")
+    public void test_03(@Autowired MockMvc mockMvc) throws Exception {
+        String newsEtag = mockMvc.perform(get("/api/feeds/rss").param("category", "News"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("Peach Cobbler"))))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String recipesEtag = mockMvc.perform(get("/api/feeds/rss").param("category", "Recipes"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.CREATED,
+                new BlogPost(3L, "Recipes", LocalDateTime.of(2022, 7, 3, 10, 0), "Plum Jam", "content", null)));
+
+        mockMvc.perform(get("/api/feeds/rss").param("category", "News").header(HttpHeaders.IF_NONE_MATCH, newsEtag))
+                .andExpect(status().isNotModified());
+        String changedEtag = mockMvc.perform(get("/api/feeds/rss").param("category", "Recipes"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Plum Jam")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(recipesEtag, changedEtag);
+    }
+
+    @Test
+    @DisplayName("T04 - Sitemap index points at parts that list article URLs")
+    public void test_04(@Autowired MockMvc mockMvc) throws Exception {
+        mockMvc.perform(get("/sitemap.xml"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("<loc>http://localhost:3000/sitemap-0.xml</loc>")));
+        mockMvc.perform(get("/sitemap-0.xml"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("<loc>http://localhost:3000/articles/1</loc>")));
+        mockMvc.perform(get("/sitemap-7.xml"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("T05 - Feed for an unknown category returns 404")
+    public void test_05(@Autowired MockMvc mockMvc) throws Exception {
+        mockMvc.perform(get("/api/feeds/atom").param("category", "No Such Category"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("T06 - A periodic refresh picks up changes made elsewhere and leaves other feeds alone")
+    public void test_06(@Autowired MockMvc mockMvc, @Autowired ArticleFeeds articleFeeds) throws Exception {
+        String newsEtag = mockMvc.perform(get("/api/feeds/rss").param("category", "News"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        BlogPost renamed = new BlogPost(1L, "Recipes", firstPosting.getDatePosted(), "Peach Crumble", null, null);
+        when(mockRepository.getAllBlogPostingsOmittingContent()).thenReturn(Arrays.asList(secondPosting, renamed));
+        articleFeeds.refresh();
+
+        mockMvc.perform(get("/api/feeds/rss").param("category", "Recipes"))
+                .andExpect(content().string(containsString("<title>Peach Crumble</title>")))
+                .andExpect(content().string(not(containsString("Peach Cobbler"))));
+        mockMvc.perform(get("/api/feeds/rss").param("category", "News").header(HttpHeaders.IF_NONE_MATCH, newsEtag))
+                .andExpect(status().isNotModified());
+
+        when(mockRepository.getAllBlogPostingsOmittingContent()).thenReturn(Arrays.asList(secondPosting, firstPosting));
+        articleFeeds.refresh();
+    }
+}
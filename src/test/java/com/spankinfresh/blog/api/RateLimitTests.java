@@ -0,0 +1,89 @@
+package com.spankinfresh.blog.api;
+
+import com.spankinfresh.blog.data.BlogPostRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "blog.rate-limit.trusted-proxy-hops=1")
+@AutoConfigureMockMvc
+public class RateLimitTests {
+
+    @MockBean
+    private BlogPostRepository mockRepository;
+
+    @Test
+    @DisplayName("T01 - Client exceeding its burst on the full listing gets 429 without a query")
+    public void test_01(@Autowired MockMvc mockMvc) throws Exception {
+        when(mockRepository.findAll()).thenReturn(new ArrayList<>());
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/articles").with(request -> {
+                request.setRemoteAddr("10.0.0.1");
+                return request;
+            })).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/articles").with(request -> {
+                    request.setRemoteAddr("10.0.0.1");
+                    return request;
+                }))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        mockMvc.perform(get("/api/articles").with(request -> {
+            request.setRemoteAddr("10.0.0.2");
+            return request;
+        })).andExpect(status().isOk());
+        verify(mockRepository, times(6)).findAll();
+    }
+
+    @Test
+    @DisplayName("T02 - Behind a trusted proxy the client is the entry the proxy added, not one the client sent")
+    public void test_02(@Autowired MockMvc mockMvc) throws Exception {
+        when(mockRepository.findAll()).thenReturn(new ArrayList<>());
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/articles").header("X-Forwarded-For", "198.51.100." + i + ", 203.0.113.5")
+                    .with(request -> {
+                        request.setRemoteAddr("10.0.0.9");
+                        return request;
+                    })).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/articles").header("X-Forwarded-For", "198.51.100.99, 203.0.113.5")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.9");
+                            return request;
+                        }))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/api/articles").header("X-Forwarded-For", "203.0.113.6")
+                .with(request -> {
+                    request.setRemoteAddr("10.0.0.9");
+                    return request;
+                })).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("T03 - Requests refused to a throttled client do not use up the endpoint-wide budget")
+    public void test_03(@Autowired MockMvc mockMvc) throws Exception {
+        when(mockRepository.findAll()).thenReturn(new ArrayList<>());
+        for (int i = 0; i < 30; i++) {
+            mockMvc.perform(get("/api/articles").with(request -> {
+                request.setRemoteAddr("10.0.0.3");
+                return request;
+            }));
+        }
+        mockMvc.perform(get("/api/articles").with(request -> {
+            request.setRemoteAddr("10.0.0.4");
+            return request;
+        })).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,78 @@
+package com.spankinfresh.blog.api;
+
+import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import com.spankinfresh.blog.related.RelatedArticles;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"blog.related.size=2", "blog.related.initial-delay-ms=3600000"})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RelatedArticlesControllerTests {
+
+    private static final String COBBLER = "Slice the peaches, toss them with sugar and cinnamon, cover with a butter "
+            + "and flour crust and bake the cobbler until golden and bubbling. ";
+    private static final String HOURS = "The farmers market opens at seven on Saturdays and closes at noon; parking "
+            + "is free on the north lot and vendors accept cards. ";
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeAll
+    void buildIndex(@Autowired JdbcTemplate jdbcTemplate, @Autowired RelatedArticles relatedArticles) {
+        jdbcTemplate.update("insert into author (id, first_name, last_name, email_address) values (1, 'Ada', 'Baker', 'ada@example.com')");
+        jdbcTemplate.update("insert into category (id, category_name) values (1, 'Recipes'), (2, 'News')");
+        jdbcTemplate.update("insert into blog_post (id, category_id, author_id, date_posted, title, content) values " +
+                        "(1, 1, 1, '2022-07-01 10:00:00', 'Peach Cobbler', ?), " +
+                        "(2, 1, 1, '2022-07-02 10:00:00', 'Easy Peach Cobbler', ?), " +
+                        "(3, 2, 1, '2022-07-03 10:00:00', 'Market Hours', ?)",
+                COBBLER.repeat(3), COBBLER + "Serve warm with vanilla ice cream.", HOURS.repeat(2));
+        relatedArticles.rebuild();
+    }
+
+    @Test
+    @DisplayName("T01 - Related list holds similar articles and leaves out unrelated ones")
+    public void test_01(@Autowired MockMvc mockMvc) throws Exception {
+        mockMvc.perform(get("/api/articles/1/related"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[0].title").value("Easy Peach Cobbler"))
+                .andExpect(jsonPath("$[0].category").value("Recipes"));
+        mockMvc.perform(get("/api/articles/3/related"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("T02 - Writes update the lists without a rebuild")
+    public void test_02(@Autowired MockMvc mockMvc) throws Exception {
+        eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.CREATED,
+                new BlogPost(4L, "News", LocalDateTime.of(2022, 7, 4, 10, 0), "New Market Hours", HOURS + "Closed on holidays.", null)));
+        mockMvc.perform(get("/api/articles/3/related"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(4));
+
+        eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.DELETED,
+                new BlogPost(4L, "News", null, "New Market Hours", null, null)));
+        mockMvc.perform(get("/api/articles/3/related"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/articles/4/related"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+}
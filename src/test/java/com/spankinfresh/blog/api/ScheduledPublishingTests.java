@@ -0,0 +1,201 @@
+package com.spankinfresh.blog.api;
+
+import com.jayway.jsonpath.JsonPath;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "blog.publishing.tick-ms=20")
+@AutoConfigureMockMvc
+public class ScheduledPublishingTests {
+
+    @Test
+    @DisplayName("T01 - A post with a future publishAt stays hidden until that time, then appears everywhere")
+    public void test_01(@Autowired MockMvc mockMvc) throws Exception {
+        String author = mockMvc.perform(post("/api/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Ada\",\"lastName\":\"Baker\",\"emailAddress\":\"ada@example.com\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        int authorId = JsonPath.read(author, "$.id");
+        LocalDateTime publishAt = LocalDateTime.now().plusSeconds(2).truncatedTo(ChronoUnit.SECONDS);
+        String publishAtText = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(publishAt);
+        String created = mockMvc.perform(post("/api/articles")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"category\":\"Recipes\",\"title\":\"Plum Jam\",\"content\":\"Plums and sugar\"," +
+                                "\"publishAt\":\"" + publishAtText + "\",\"author\":{\"id\":" + authorId + "}}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        int id = JsonPath.read(created, "$.id");
+
+        mockMvc.perform(get("/api/articles/" + id)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/summary/articles")).andExpect(jsonPath("$[*].id", not(hasItem(id))));
+        mockMvc.perform(get("/api/categories")).andExpect(jsonPath("$[*].categoryName", not(hasItem("Recipes"))));
+        mockMvc.perform(get("/api/articles/scheduled"))
+                .andExpect(jsonPath("$[*].id", hasItem(id)))
+                .andExpect(jsonPath("$[0].content", nullValue()));
+
+        int status = 404;
+        for (int attempt = 0; attempt < 60 && status == 404; attempt++) {
+            Thread.sleep(100);
+            status = mockMvc.perform(get("/api/articles/" + id)).andReturn().getResponse().getStatus();
+        }
+        assertEquals(200, status);
+        assertEquals(false, LocalDateTime.now().isBefore(publishAt));
+        mockMvc.perform(get("/api/articles/" + id))
+                .andExpect(jsonPath("$[0].datePosted").value(publishAtText));
+        mockMvc.perform(get("/api/summary/articles")).andExpect(jsonPath("$[*].id", hasItem(id)));
+        mockMvc.perform(get("/api/categories")).andExpect(jsonPath("$[*].categoryName", hasItem("Recipes")));
+        mockMvc.perform(get("/api/articles/scheduled")).andExpect(jsonPath("$[*].id", not(hasItem(id))));
+    }
+
+    @Test
+    @DisplayName("T02 - A listener failing on the publish event gets the event again on the retry")
+    public void test_02(@Autowired MockMvc mockMvc) throws Exception {
+        String author = mockMvc.perform(post("/api/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Ada\",\"lastName\":\"Baker\",\"emailAddress\":\"ada@example.com\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        int authorId = JsonPath.read(author, "$.id");
+        String publishAtText = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(
+                LocalDateTime.now().plusSeconds(1).truncatedTo(ChronoUnit.SECONDS));
+        mockMvc.perform(post("/api/articles")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"category\":\"Recipes\",\"title\":\"" + FlakyListener.TITLE + "\"," +
+                                "\"content\":\"Quinces\",\"publishAt\":\"" + publishAtText + "\"," +
+                                "\"author\":{\"id\":" + authorId + "}}"))
+                .andExpect(status().isCreated());
+
+        for (int attempt = 0; attempt < 150 && FlakyListener.calls.get() < 2; attempt++) {
+            Thread.sleep(100);
+        }
+        assertEquals(2, FlakyListener.calls.get());
+    }
+
+    @Test
+    @DisplayName("T03 - A scheduled post can be rewritten and moved to a new time, or cancelled")
+    public void test_03(@Autowired MockMvc mockMvc) throws Exception {
+        String author = mockMvc.perform(post("/api/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Ada\",\"lastName\":\"Baker\",\"emailAddress\":\"ada@example.com\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        int authorId = JsonPath.read(author, "$.id");
+        String nextYear = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(
+                LocalDateTime.now().plusYears(1).truncatedTo(ChronoUnit.SECONDS));
+        int moved = JsonPath.read(mockMvc.perform(post("/api/articles")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"category\":\"Recipes\",\"title\":\"Pear Butter\",\"content\":\"Pears\"," +
+                                "\"publishAt\":\"" + nextYear + "\",\"author\":{\"id\":" + authorId + "}}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString(), "$.id");
+        int cancelled = JsonPath.read(mockMvc.perform(post("/api/articles")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"category\":\"Recipes\",\"title\":\"Fig Paste\",\"content\":\"Figs\"," +
+                                "\"publishAt\":\"" + nextYear + "\",\"author\":{\"id\":" + authorId + "}}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString(), "$.id");
+
+        String soon = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(
+                LocalDateTime.now().plusSeconds(1).truncatedTo(ChronoUnit.SECONDS));
+        mockMvc.perform(put("/api/articles/" + moved)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + moved + ",\"category\":\"Recipes\",\"title\":\"Spiced Pear Butter\"," +
+                                "\"content\":\"Pears and cloves\",\"publishAt\":\"" + soon + "\"," +
+                                "\"author\":{\"id\":" + authorId + "}}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/articles/" + cancelled)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/articles/scheduled")).andExpect(jsonPath("$[*].id", not(hasItem(cancelled))));
+        mockMvc.perform(delete("/api/articles/" + cancelled)).andExpect(status().isNotFound());
+
+        int status = 404;
+        for (int attempt = 0; attempt < 60 && status == 404; attempt++) {
+            Thread.sleep(100);
+            status = mockMvc.perform(get("/api/articles/" + moved)).andReturn().getResponse().getStatus();
+        }
+        assertEquals(200, status);
+        mockMvc.perform(get("/api/articles/" + moved))
+                .andExpect(jsonPath("$[0].title").value("Spiced Pear Butter"))
+                .andExpect(jsonPath("$[0].slug").value("spiced-pear-butter"))
+                .andExpect(jsonPath("$[0].datePosted").value(soon));
+        mockMvc.perform(get("/api/articles/by-slug/spiced-pear-butter")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/articles/by-slug/pear-butter")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("T04 - The publish event is raised even when another instance already flipped the row")
+    public void test_04(@Autowired MockMvc mockMvc, @Autowired JdbcTemplate jdbcTemplate) throws Exception {
+        String author = mockMvc.perform(post("/api/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Ada\",\"lastName\":\"Baker\",\"emailAddress\":\"ada@example.com\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        int authorId = JsonPath.read(author, "$.id");
+        String publishAtText = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(
+                LocalDateTime.now().plusSeconds(1).truncatedTo(ChronoUnit.SECONDS));
+        int id = JsonPath.read(mockMvc.perform(post("/api/articles")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"category\":\"Recipes\",\"title\":\"" + CreatedListener.TITLE + "\"," +
+                                "\"content\":\"Damsons\",\"publishAt\":\"" + publishAtText + "\"," +
+                                "\"author\":{\"id\":" + authorId + "}}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString(), "$.id");
+        jdbcTemplate.update("update blog_post set published = true where id = ?", id);
+
+        for (int attempt = 0; attempt < 60 && CreatedListener.calls.get() < 1; attempt++) {
+            Thread.sleep(100);
+        }
+        assertEquals(1, CreatedListener.calls.get());
+    }
+
+    @TestConfiguration
+    static class CreatedListener {
+
+        static final String TITLE = "Damson Cheese";
+        static final AtomicInteger calls = new AtomicInteger();
+
+        @EventListener
+        public void onArticleChanged(ArticleChangedEvent event) {
+            if (event.getType() == ArticleChangedEvent.Type.CREATED && TITLE.equals(event.getArticle().getTitle())) {
+                calls.incrementAndGet();
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class FlakyListener {
+
+        static final String TITLE = "Quince Jelly";
+        static final AtomicInteger calls = new AtomicInteger();
+
+        @EventListener
+        public void onArticleChanged(ArticleChangedEvent event) {
+            if (event.getType() == ArticleChangedEvent.Type.CREATED && TITLE.equals(event.getArticle().getTitle())
+                    && calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("listener failed");
+            }
+        }
+    }
+}
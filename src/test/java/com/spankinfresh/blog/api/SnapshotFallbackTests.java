@@ -0,0 +1,159 @@
+package com.spankinfresh.blog.api;
+
+import com.spankinfresh.blog.data.AuthorRepository;
+import com.spankinfresh.blog.data.BlogPostJdbcTemplateRepository;
+import com.spankinfresh.blog.data.BlogPostRepository;
+import com.spankinfresh.blog.data.SnapshotJdbcTemplateRepository;
+import com.spankinfresh.blog.snapshot.DatabaseCircuitBreaker;
+import com.spankinfresh.blog.snapshot.SnapshotService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.util.NestedServletException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SnapshotFallbackTests {
+
+    @MockBean
+    BlogPostRepository mockBlogPostRepository;
+    @MockBean
+    AuthorRepository mockAuthorRepository;
+    @MockBean
+    BlogPostJdbcTemplateRepository mockJdbcRepository;
+    @SpyBean
+    SnapshotJdbcTemplateRepository snapshotRepository;
+
+    @DynamicPropertySource
+    static void snapshotPath(DynamicPropertyRegistry registry) throws IOException {
+        Path snapshotDirectory = Files.createTempDirectory("blog-snapshot");
+        snapshotDirectory.toFile().deleteOnExit();
+        registry.add("blog.snapshot.path", () -> snapshotDirectory.resolve("blog.snapshot").toString());
+    }
+
+    @BeforeAll
+    void writeSnapshot(@Autowired JdbcTemplate jdbcTemplate, @Autowired SnapshotService snapshotService) {
+        jdbcTemplate.update("insert into author (id, first_name, last_name, email_address) values (1, 'Ada', 'Baker', 'ada@example.com')");
+        jdbcTemplate.update("insert into category (id, category_name) values (1, 'Recipes'), (2, 'News'), (3, 'Unused')");
+        jdbcTemplate.update("insert into blog_post (id, category_id, author_id, date_posted, title, content) values " +
+                "(1, 1, 1, '2022-07-01 10:00:00', 'Peach Cobbler', 'Peaches and crust'), " +
+                "(2, 2, 1, '2022-07-02 10:00:00', 'Market Hours', 'Open until noon'), " +
+                "(3, 1, 1, '2022-07-03 10:00:00', 'Plum Jam', 'Plums and sugar')");
+        snapshotService.refresh();
+    }
+
+    @BeforeEach
+    void databaseDown() {
+        DataAccessResourceFailureException down = new DataAccessResourceFailureException("database unavailable");
+        when(mockBlogPostRepository.findAll()).thenThrow(down);
+        when(mockBlogPostRepository.findById(anyLong())).thenThrow(down);
+        when(mockBlogPostRepository.findByCategoryRefIdOrderByDatePostedDesc(anyLong())).thenThrow(down);
+        when(mockBlogPostRepository.save(any())).thenThrow(down);
+        when(mockAuthorRepository.findAll()).thenThrow(down);
+        when(mockAuthorRepository.findById(anyLong())).thenThrow(down);
+        when(mockJdbcRepository.getAllBlogPostingsOmittingContent()).thenThrow(down);
+        when(mockJdbcRepository.getCategoryList()).thenThrow(down);
+    }
+
+    @Test
+    @DisplayName("T01 - Article by id is served from the snapshot with its author and category")
+    public void test_01(@Autowired MockMvc mockMvc) throws Exception {
+        mockMvc.perform(get("/api/articles/2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Served-From", "snapshot"))
+                .andExpect(jsonPath("$[0].title").value("Market Hours"))
+                .andExpect(jsonPath("$[0].category").value("News"))
+                .andExpect(jsonPath("$[0].content").value("Open until noon"))
+                .andExpect(jsonPath("$[0].author.lastName").value("Baker"));
+        mockMvc.perform(get("/api/articles/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("T02 - Category listing and summaries come back newest first")
+    public void test_02(@Autowired MockMvc mockMvc) throws Exception {
+        mockMvc.perform(get("/api/articles/category").param("categoryName", "Recipes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].title").value("Plum Jam"))
+                .andExpect(jsonPath("$[1].title").value("Peach Cobbler"));
+        mockMvc.perform(get("/api/summary/articles"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[0].content").value(nullValue()))
+                .andExpect(jsonPath("$[2].datePosted").value("2022-07-01T10:00:00"));
+    }
+
+    @Test
+    @DisplayName("T03 - Categories and authors are served from the snapshot")
+    public void test_03(@Autowired MockMvc mockMvc) throws Exception {
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].categoryName").value("News"));
+        mockMvc.perform(get("/api/authors"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].emailAddress").value("ada@example.com"));
+        mockMvc.perform(get("/api/authors/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].firstName").value("Ada"));
+    }
+
+    @Test
+    @DisplayName("T04 - Writes still fail while the database is down")
+    public void test_04(@Autowired MockMvc mockMvc) {
+        NestedServletException thrown = assertThrows(NestedServletException.class, () -> mockMvc.perform(post("/api/articles")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"category\":\"News\",\"title\":\"Closed\",\"content\":\"Closed today\",\"author\":{\"id\":1}}")));
+        assertInstanceOf(DataAccessResourceFailureException.class, thrown.getCause());
+    }
+
+    @Test
+    @DisplayName("T05 - With the circuit open only reads the snapshot covers skip the database")
+    public void test_05(@Autowired MockMvc mockMvc, @Autowired DatabaseCircuitBreaker breaker) throws Exception {
+        doThrow(new DataAccessResourceFailureException("database unavailable")).when(snapshotRepository).ping();
+        for (int i = 0; i < 5; i++) {
+            breaker.recordFailure(new DataAccessResourceFailureException("database unavailable"));
+        }
+        assertTrue(breaker.isOpen());
+        mockMvc.perform(get("/api/articles/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Served-From", "snapshot"))
+                .andExpect(jsonPath("$[0].title").value("Peach Cobbler"));
+        mockMvc.perform(get("/api/articles/popular"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Served-From"));
+    }
+}
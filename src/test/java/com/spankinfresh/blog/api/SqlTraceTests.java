@@ -0,0 +1,63 @@
+package com.spankinfresh.blog.api;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"blog.sql-trace.response-headers=true", "blog.sql-trace.repeated-statement-threshold=3"})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith(OutputCaptureExtension.class)
+public class SqlTraceTests {
+
+    @BeforeAll
+    void insertArticles(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into author (id, first_name, last_name, email_address) values " +
+                "(1, 'Ada', 'Baker', 'ada@example.com'), (2, 'Bo', 'Carter', 'bo@example.com'), " +
+                "(3, 'Cy', 'Dunn', 'cy@example.com')");
+        jdbcTemplate.update("insert into category (id, category_name) values (1, 'Recipes'), (2, 'News'), (3, 'Travel')");
+        jdbcTemplate.update("insert into blog_post (id, category_id, author_id, date_posted, title, content) values " +
+                "(1, 1, 1, '2022-06-30 10:00:00', 'Peach Cobbler', 'a'), " +
+                "(2, 2, 2, '2022-07-02 10:00:00', 'Market Hours', 'b'), " +
+                "(3, 3, 3, '2022-07-03 10:00:00', 'Road Trip', 'c')");
+    }
+
+    @Test
+    @DisplayName("T01 - Responses carry the request id and the number of statements the request ran")
+    public void test_01(@Autowired MockMvc mockMvc) throws Exception {
+        mockMvc.perform(get("/api/summary/articles").header("X-Request-Id", "abc-123"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Request-Id", "abc-123"))
+                .andExpect(header().string("X-SQL-Count", "1"))
+                .andExpect(header().exists("X-SQL-Time-Ms"));
+        mockMvc.perform(get("/api/summary/articles").header("X-Request-Id", "bad id\nforged"))
+                .andExpect(header().string("X-Request-Id", org.hamcrest.Matchers.matchesPattern("[0-9a-f-]{36}")));
+    }
+
+    @Test
+    @DisplayName("T02 - A statement repeated within one request is logged against its controller method")
+    public void test_02(@Autowired MockMvc mockMvc, CapturedOutput output) throws Exception {
+        mockMvc.perform(get("/api/articles").header("X-Request-Id", "n-plus-one"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(header().string("X-SQL-Count", "7"));
+        assertTrue(output.getOut().lines().anyMatch(line -> line.contains("repeated_statement request_id=n-plus-one " +
+                "handler=BlogPostController#getAllItems count=3") && line.contains("from author")));
+        assertFalse(output.getOut().contains("slow_query"));
+    }
+}
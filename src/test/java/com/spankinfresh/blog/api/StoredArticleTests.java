@@ -0,0 +1,104 @@
+package com.spankinfresh.blog.api;
+
+import com.jayway.jsonpath.JsonPath;
+import com.spankinfresh.blog.data.BlogPostRepository;
+import com.spankinfresh.blog.domain.Author;
+import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "blog.content-store.max-age-ms=2000")
+@AutoConfigureMockMvc
+public class StoredArticleTests {
+
+    @MockBean
+    private BlogPostRepository mockRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    private static final Author author = new Author(1L, "Jane", "Doe", "jane@doe.com");
+
+    @Test
+    @DisplayName("T01 - Repeat reads are served from the off-heap store until the article changes")
+    public void test_01(@Autowired MockMvc mockMvc) throws Exception {
+        BlogPost article = new BlogPost(7L, "Recipes", LocalDateTime.of(2022, 7, 1, 10, 0), "Peach Cobbler",
+                "Peaches \"and\" crust\n".repeat(5000), author);
+        when(mockRepository.findById(7L)).thenReturn(Optional.of(article));
+        String first = mockMvc.perform(get("/api/articles/7"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(get("/api/articles/7"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/json"))
+                .andExpect(jsonPath("$[0].author.lastName").value("Doe"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(first, second);
+        verify(mockRepository, times(1)).findById(7L);
+
+        BlogPost updated = new BlogPost(7L, "Recipes", article.getDatePosted(), "Peach Cobbler", "Less sugar", author);
+        when(mockRepository.findById(7L)).thenReturn(Optional.of(updated));
+        eventPublisher.publishEvent(new ArticleChangedEvent(ArticleChangedEvent.Type.UPDATED, updated));
+        mockMvc.perform(get("/api/articles/7"))
+                .andExpect(jsonPath("$[0].content").value("Less sugar"));
+        mockMvc.perform(get("/api/articles/7"))
+                .andExpect(jsonPath("$[0].content").value("Less sugar"));
+        verify(mockRepository, times(2)).findById(7L);
+    }
+
+    @Test
+    @DisplayName("T02 - Stored articles are dropped when their author is renamed")
+    public void test_02(@Autowired MockMvc mockMvc) throws Exception {
+        String created = mockMvc.perform(post("/api/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Ada\",\"lastName\":\"Baker\",\"emailAddress\":\"ada@example.com\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long authorId = ((Number) JsonPath.read(created, "$.id")).longValue();
+        BlogPost article = new BlogPost(8L, "Recipes", LocalDateTime.of(2022, 7, 1, 10, 0), "Plum Jam", "Plums",
+                new Author(authorId, "Ada", "Baker", "ada@example.com"));
+        when(mockRepository.findById(8L)).thenReturn(Optional.of(article));
+        mockMvc.perform(get("/api/articles/8")).andExpect(jsonPath("$[0].author.lastName").value("Baker"));
+        mockMvc.perform(get("/api/articles/8")).andExpect(jsonPath("$[0].author.lastName").value("Baker"));
+        verify(mockRepository, times(1)).findById(8L);
+
+        mockMvc.perform(put("/api/authors/" + authorId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + authorId + ",\"firstName\":\"Ada\",\"lastName\":\"Carter\"," +
+                                "\"emailAddress\":\"ada@example.com\"}"))
+                .andExpect(status().isNoContent());
+        article.setAuthor(new Author(authorId, "Ada", "Carter", "ada@example.com"));
+        mockMvc.perform(get("/api/articles/8")).andExpect(jsonPath("$[0].author.lastName").value("Carter"));
+        verify(mockRepository, times(2)).findById(8L);
+    }
+
+    @Test
+    @DisplayName("T03 - A stored article changed elsewhere is reloaded once it is older than the maximum age")
+    public void test_03(@Autowired MockMvc mockMvc) throws Exception {
+        BlogPost article = new BlogPost(9L, "Recipes", LocalDateTime.of(2022, 7, 1, 10, 0), "Fig Paste", "Figs", author);
+        when(mockRepository.findById(9L)).thenReturn(Optional.of(article));
+        mockMvc.perform(get("/api/articles/9")).andExpect(jsonPath("$[0].content").value("Figs"));
+
+        // changed through another instance, so no event reaches this one
+        BlogPost updated = new BlogPost(9L, "Recipes", article.getDatePosted(), "Fig Paste", "Figs and honey", author);
+        when(mockRepository.findById(9L)).thenReturn(Optional.of(updated));
+        mockMvc.perform(get("/api/articles/9")).andExpect(jsonPath("$[0].content").value("Figs"));
+        Thread.sleep(2100);
+        mockMvc.perform(get("/api/articles/9")).andExpect(jsonPath("$[0].content").value("Figs and honey"));
+        verify(mockRepository, times(2)).findById(9L);
+    }
+}
@@ -0,0 +1,77 @@
+package com.spankinfresh.blog.content;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapContentStoreTests {
+
+    private static byte[] filled(int length, int seed) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i * 31 + seed);
+        }
+        return data;
+    }
+
+    private static byte[] read(OffHeapContentStore.Lease lease) throws IOException {
+        try (lease; InputStream input = lease.openStream()) {
+            return input.readAllBytes();
+        }
+    }
+
+    @Test
+    @DisplayName("T01 - Values spanning several chunks read back unchanged")
+    public void test_01() throws IOException {
+        OffHeapContentStore store = new OffHeapContentStore(4096, 64, 1024);
+        byte[] value = filled(300, 7);
+        assertTrue(store.put(1L, value, value.length));
+        assertArrayEquals(value, read(store.acquire(1L)));
+        assertNull(store.acquire(2L));
+        assertEquals(1, store.getHits());
+        assertEquals(1, store.getMisses());
+        assertEquals(5 * 64, store.getUsedBytes());
+        assertEquals(1024, store.getAllocatedBytes());
+    }
+
+    @Test
+    @DisplayName("T02 - Least recently read value is evicted when the store is full")
+    public void test_02() throws IOException {
+        OffHeapContentStore store = new OffHeapContentStore(1024, 64, 1024);
+        byte[] value = filled(256, 1);
+        assertTrue(store.put(1L, value, value.length));
+        assertTrue(store.put(2L, value, value.length));
+        assertTrue(store.put(3L, value, value.length));
+        assertTrue(store.put(4L, value, value.length));
+        read(store.acquire(1L));
+        assertTrue(store.put(5L, value, value.length));
+        assertNull(store.acquire(2L));
+        assertArrayEquals(value, read(store.acquire(1L)));
+        assertEquals(1, store.getEvictions());
+        assertEquals(4, store.getEntryCount());
+        assertFalse(store.put(6L, filled(257, 1), 257), "larger than a quarter of the store");
+    }
+
+    @Test
+    @DisplayName("T03 - Removed value stays readable until its lease is closed")
+    public void test_03() throws IOException {
+        OffHeapContentStore store = new OffHeapContentStore(1024, 64, 1024);
+        byte[] original = filled(256, 1);
+        store.put(1L, original, original.length);
+        OffHeapContentStore.Lease lease = store.acquire(1L);
+        store.remove(1L);
+        byte[] replacement = filled(256, 2);
+        for (long key = 2; key <= 4; key++) {
+            assertTrue(store.put(key, replacement, replacement.length));
+        }
+        assertTrue(store.put(5L, replacement, replacement.length));
+        assertNull(store.acquire(2L));
+        assertArrayEquals(original, read(lease));
+        lease.close();
+        assertEquals(store.getEntryCount() * 256L, store.getUsedBytes());
+    }
+}
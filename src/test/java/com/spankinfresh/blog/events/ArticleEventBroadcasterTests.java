@@ -0,0 +1,90 @@
+package com.spankinfresh.blog.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spankinfresh.blog.domain.Author;
+import com.spankinfresh.blog.domain.BlogPost;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ArticleEventBroadcasterTests {
+
+    private static final Author author = new Author(1L, "Jane", "Doe", "jane@doe.com");
+
+    @Test
+    @DisplayName("T01 - A subscriber that stops reading is dropped without holding up the others")
+    public void test_01() throws Exception {
+        ArticleEventBroadcaster broadcaster = new ArticleEventBroadcaster(new ObjectMapper().findAndRegisterModules(),
+                64, 60000, 4, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        RecordingEmitter reading = new RecordingEmitter(null);
+        try {
+            broadcaster.register(stalled, null);
+            broadcaster.register(reading, null);
+            awaitCount(broadcaster, 2);
+
+            for (long id = 1; id <= 10; id++) {
+                broadcaster.onArticleChanged(new ArticleChangedEvent(ArticleChangedEvent.Type.CREATED,
+                        new BlogPost(id, "category", LocalDateTime.now(), "title " + id, "content", author)));
+                long deadline = System.currentTimeMillis() + 5000;
+                while (reading.sent.size() < id && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(5);
+                }
+            }
+            assertEquals(10, reading.sent.size());
+            awaitCount(broadcaster, 1);
+            assertTrue(stalled.completed);
+        } finally {
+            release.countDown();
+            broadcaster.shutdown();
+        }
+    }
+
+    private static void awaitCount(ArticleEventBroadcaster broadcaster, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (broadcaster.getSubscriberCount() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, broadcaster.getSubscriberCount());
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch block;
+        private final List<SseEventBuilder> sent = new CopyOnWriteArrayList<>();
+        private volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch block) {
+            this.block = block;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (block != null) {
+                try {
+                    block.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.add(builder);
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+}
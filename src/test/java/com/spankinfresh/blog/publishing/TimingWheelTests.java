@@ -0,0 +1,81 @@
+package com.spankinfresh.blog.publishing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTests {
+
+    @Test
+    @DisplayName("T01 - Items come due on the tick of their deadline, across every level")
+    public void test_01() {
+        TimingWheel<Long> wheel = new TimingWheel<>(100, 1_000_000);
+        long[] deadlines = {1_000_050, 1_000_150, 1_006_400, 1_409_700, 27_000_000, 1_000_000 + 40L * 24 * 3600 * 1000};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+        assertEquals(6, wheel.size());
+        for (long deadline : deadlines) {
+            long dueTick = (deadline + 99) / 100 * 100;
+            assertEquals(List.of(), wheel.advanceTo(dueTick - 1), "early for " + deadline);
+            assertEquals(List.of(deadline), wheel.advanceTo(dueTick), "due " + deadline);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("T02 - Past deadlines are due on the next advance, and large jumps keep deadline order")
+    public void test_02() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(10, 0);
+        wheel.schedule(-5, -1);
+        assertEquals(List.of(-1), wheel.advanceTo(0));
+
+        Random random = new Random(7);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long deadline = 10 + random.nextInt(5_000_000);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, i);
+        }
+        List<Integer> due = new ArrayList<>();
+        for (long now = 0; now <= 5_000_010; now += 1 + random.nextInt(40_000)) {
+            for (int item : wheel.advanceTo(now)) {
+                assertTrue(deadlines.get(item) <= now, "item " + item + " fired early");
+                due.add(item);
+            }
+        }
+        due.addAll(wheel.advanceTo(5_000_010));
+        assertEquals(2000, due.size());
+        for (int i = 1; i < due.size(); i++) {
+            assertTrue((deadlines.get(due.get(i - 1)) + 9) / 10 <= (deadlines.get(due.get(i)) + 9) / 10);
+        }
+    }
+
+    @Test
+    @DisplayName("T03 - Cancelled items never come due, and scheduling an item again moves it")
+    public void test_03() {
+        TimingWheel<Long> wheel = new TimingWheel<>(100, 0);
+        wheel.schedule(500, 1L);
+        wheel.schedule(700_000, 2L);
+        wheel.schedule(-1, 3L);
+        wheel.schedule(900, 4L);
+        assertTrue(wheel.cancel(2L));
+        assertTrue(wheel.cancel(3L));
+        assertFalse(wheel.cancel(3L));
+        wheel.schedule(300, 4L);
+        wheel.schedule(2_000_000, 1L);
+        assertEquals(2, wheel.size());
+
+        assertEquals(List.of(4L), wheel.advanceTo(1000));
+        assertEquals(List.of(), wheel.advanceTo(1_000_000));
+        assertEquals(List.of(1L), wheel.advanceTo(2_000_000));
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,107 @@
+package com.spankinfresh.blog.revisions;
+
+import com.spankinfresh.blog.data.ArticleRevisionJdbcTemplateRepository;
+import com.spankinfresh.blog.domain.ArticleRevision;
+import com.spankinfresh.blog.domain.BlogPost;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Storage benchmark: a 500 KB article edited 100 times, with small edits scattered through it.
+ */
+@SpringBootTest(properties = "blog.revisions.snapshot-interval=10")
+public class ArticleRevisionStorageTests {
+
+    private static final String[] WORDS = {"peach", "cobbler", "butter", "flour", "oven", "bake", "until", "golden",
+            "serve", "with", "cream", "the", "a", "and", "of", "sugar", "slice", "warm", "crust", "minutes"};
+
+    @Autowired
+    private ArticleRevisionService articleRevisionService;
+    @SpyBean
+    private ArticleRevisionJdbcTemplateRepository revisionRepository;
+
+    private static String text(Random random, int length) {
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(12) == 0 ? ".\n" : " ");
+        }
+        return text.toString();
+    }
+
+    @Test
+    @DisplayName("T01 - Storage grows with the size of the edits, not the size of the article")
+    public void test_01() {
+        long articleId = 9001L;
+        Random random = new Random(42);
+        StringBuilder content = new StringBuilder(text(random, 500_000));
+        List<String> versions = new ArrayList<>();
+        long fullCopyBytes = 0;
+        for (int edit = 0; edit < 100; edit++) {
+            if (edit > 0) {
+                int at = random.nextInt(content.length() - 500);
+                content.replace(at, at + random.nextInt(200), text(random, random.nextInt(400)));
+            }
+            versions.add(content.toString());
+            fullCopyBytes += content.toString().getBytes(StandardCharsets.UTF_8).length;
+            assertTrue(articleRevisionService.record(new BlogPost(articleId, "Recipes", null, "Cobbler",
+                    content.toString(), null)).isPresent());
+        }
+
+        List<ArticleRevision> revisions = articleRevisionService.getRevisions(articleId);
+        assertEquals(100, revisions.size());
+        long storedBytes = revisions.stream().mapToLong(ArticleRevision::getStoredBytes).sum();
+        long snapshots = revisions.stream().filter(ArticleRevision::isSnapshot).count();
+        assertEquals(10, snapshots);
+        assertTrue(storedBytes * 20 < fullCopyBytes,
+                "stored " + storedBytes + " bytes for " + fullCopyBytes + " bytes of versions");
+
+        for (int number = 1; number <= 100; number += 7) {
+            assertEquals(versions.get(number - 1), articleRevisionService.getRevision(articleId, number)
+                    .orElseThrow().getContent(), "revision " + number);
+        }
+        assertEquals(versions.get(99), articleRevisionService.getRevision(articleId, 100).orElseThrow().getContent());
+    }
+
+    @Test
+    @DisplayName("T02 - Saving unchanged content does not add a revision")
+    public void test_02() {
+        BlogPost article = new BlogPost(9002L, "News", null, "Hours", "Open until noon", null);
+        assertTrue(articleRevisionService.record(article).isPresent());
+        assertFalse(articleRevisionService.record(article).isPresent());
+        article.setTitle("New hours");
+        assertEquals(2, articleRevisionService.record(article).orElseThrow().getRevision());
+    }
+
+    @Test
+    @DisplayName("T03 - A revision stored first by another instance is kept and the edit is recorded after it")
+    public void test_03() {
+        BlogPost article = new BlogPost(9003L, "News", null, "Hours", "Open until noon", null);
+        assertTrue(articleRevisionService.record(article).isPresent());
+        ArticleRevisionService otherInstance = new ArticleRevisionService(revisionRepository, 10);
+        AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (raced.compareAndSet(false, true)) {
+                otherInstance.record(new BlogPost(9003L, "News", null, "Hours", "Open until one", null));
+            }
+            return invocation.callRealMethod();
+        }).when(revisionRepository).insertRevision(any());
+
+        article.setContent("Open until two");
+        assertEquals(3, articleRevisionService.record(article).orElseThrow().getRevision());
+        assertEquals("Open until one", articleRevisionService.getRevision(9003L, 2).orElseThrow().getContent());
+        assertEquals("Open until two", articleRevisionService.getRevision(9003L, 3).orElseThrow().getContent());
+    }
+}
@@ -0,0 +1,69 @@
+package com.spankinfresh.blog.slugs;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlugTableTests {
+
+    @Test
+    @DisplayName("T01 - Titles become lower-case hyphenated slugs without accents")
+    public void test_01() {
+        assertEquals("creme-brulee-for-two", Slugs.slugify("  Crème Brûlée, for Two! "));
+        assertEquals("article", Slugs.slugify("!!!"));
+        assertEquals(Slugs.MAX_BASE_LENGTH, Slugs.slugify("a".repeat(200)).length());
+        assertTrue(Slugs.hasBase("plum-jam-3", "plum-jam"));
+        assertFalse(Slugs.hasBase("plum-jam-extra", "plum-jam"));
+        assertFalse(Slugs.hasBase("plum-jam-", "plum-jam"));
+    }
+
+    @Test
+    @DisplayName("T02 - Renames leave redirects to the current slug, and deletes remove every slug of the article")
+    public void test_02() {
+        SlugTable table = new SlugTable();
+        table.reserve("plum-jam", 0);
+        assertNull(table.resolve("plum-jam"));
+        assertTrue(table.isTaken("plum-jam", 0));
+        assertNull(table.publish("plum-jam", 7));
+        assertEquals(7, table.resolve("plum-jam").getArticleId());
+
+        assertEquals("plum-jam", table.publish("plum-preserves", 7));
+        assertEquals("plum-preserves", table.publish("damson-jam", 7));
+        assertEquals("damson-jam", table.resolve("plum-jam").getRedirectTo());
+        assertEquals("damson-jam", table.resolve("plum-preserves").getRedirectTo());
+        assertFalse(table.resolve("damson-jam").isRedirect());
+        assertEquals("damson-jam", table.currentSlug(7));
+        assertFalse(table.isTaken("plum-jam", 7));
+        assertTrue(table.isTaken("plum-jam", 8));
+
+        table.remove(7);
+        assertNull(table.resolve("plum-jam"));
+        assertNull(table.resolve("damson-jam"));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    @DisplayName("T03 - The table grows and reuses deleted slots without losing entries")
+    public void test_03() {
+        SlugTable table = new SlugTable();
+        for (int i = 1; i <= 5000; i++) {
+            table.load("article-" + i, i, true);
+        }
+        for (int i = 1; i <= 5000; i += 2) {
+            table.remove(i);
+        }
+        for (int i = 5001; i <= 7500; i++) {
+            table.load("article-" + i, i, true);
+        }
+        assertEquals(5000, table.size());
+        for (int i = 1; i <= 7500; i++) {
+            SlugResolution resolution = table.resolve("article-" + i);
+            if (i <= 5000 && i % 2 == 1) {
+                assertNull(resolution);
+            } else {
+                assertEquals(i, resolution.getArticleId());
+            }
+        }
+    }
+}
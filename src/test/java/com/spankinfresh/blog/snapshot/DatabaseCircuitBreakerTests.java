@@ -0,0 +1,76 @@
+package com.spankinfresh.blog.snapshot;
+
+import com.spankinfresh.blog.data.SnapshotJdbcTemplateRepository;
+import com.spankinfresh.blog.ratelimit.RateLimited;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+public class DatabaseCircuitBreakerTests {
+
+    @Test
+    @DisplayName("T01 - Opens after consecutive outages, skips the database for reads, and closes on a good probe")
+    public void test_01() throws Exception {
+        SnapshotJdbcTemplateRepository repository = mock(SnapshotJdbcTemplateRepository.class);
+        DataAccessResourceFailureException down = new DataAccessResourceFailureException("database unavailable");
+        doThrow(down).when(repository).ping();
+        DatabaseCircuitBreaker breaker = new DatabaseCircuitBreaker(repository, 3, 20);
+        try {
+            breaker.recordFailure(new DataIntegrityViolationException("duplicate"));
+            breaker.recordFailure(down);
+            breaker.recordFailure(down);
+            assertFalse(breaker.isOpen());
+            breaker.recordFailure(down);
+            assertTrue(breaker.isOpen());
+
+            assertThrows(DatabaseUnavailableException.class, () ->
+                    breaker.preHandle(request("GET", "/api/articles"), new MockHttpServletResponse(), handler("listArticles")));
+            assertTrue(breaker.preHandle(request("POST", "/api/articles"), new MockHttpServletResponse(), handler("listArticles")));
+            assertTrue(breaker.preHandle(request("GET", "/api/articles/popular"), new MockHttpServletResponse(), handler("listArticles")));
+            assertTrue(breaker.preHandle(request("GET", "/api/articles"), new MockHttpServletResponse(), handler("listFromMemory")));
+
+            doNothing().when(repository).ping();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (breaker.isOpen() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertFalse(breaker.isOpen());
+            assertTrue(breaker.preHandle(request("GET", "/api/articles"), new MockHttpServletResponse(), handler("listArticles")));
+        } finally {
+            breaker.shutdown();
+        }
+    }
+
+    private static MockHttpServletRequest request(String method, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(name));
+    }
+
+    public static class Handlers {
+
+        @RateLimited(clientPermitsPerSecond = 1, clientBurst = 1)
+        public void listArticles() {
+        }
+
+        @RateLimited(clientPermitsPerSecond = 1, clientBurst = 1, databaseBound = false)
+        public void listFromMemory() {
+        }
+    }
+}
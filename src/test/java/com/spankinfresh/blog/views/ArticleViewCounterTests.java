@@ -0,0 +1,68 @@
+package com.spankinfresh.blog.views;
+
+import com.spankinfresh.blog.data.ArticleViewCountJdbcTemplateRepository;
+import com.spankinfresh.blog.domain.BlogPost;
+import com.spankinfresh.blog.domain.PopularArticle;
+import com.spankinfresh.blog.events.ArticleChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ArticleViewCounterTests {
+
+    private final ArticleViewCountJdbcTemplateRepository mockRepository = mock(ArticleViewCountJdbcTemplateRepository.class);
+
+    @Test
+    @DisplayName("T01 - Flush writes only the views recorded since the last flush")
+    public void test_01() {
+        when(mockRepository.getSummariesByIds(anyCollection())).thenReturn(new HashMap<>());
+        ArticleViewCounter counter = new ArticleViewCounter(mockRepository, 10);
+        counter.recordView(1L);
+        counter.recordView(1L);
+        counter.recordView(2L);
+        counter.flush();
+        verify(mockRepository).addViewCounts(Map.of(1L, 2L, 2L, 1L));
+        counter.recordView(2L);
+        counter.flush();
+        verify(mockRepository).addViewCounts(Map.of(2L, 1L));
+        counter.flush();
+        verify(mockRepository, times(2)).addViewCounts(anyMap());
+    }
+
+    @Test
+    @DisplayName("T02 - Most-read list is ordered by stored plus new views and limited in size")
+    public void test_02() {
+        when(mockRepository.getAllViewCounts()).thenReturn(new HashMap<>(Map.of(1L, 5L, 2L, 1L, 3L, 3L)));
+        when(mockRepository.getSummariesByIds(anyCollection())).thenAnswer(invocation -> {
+            Map<Long, PopularArticle> summaries = new HashMap<>();
+            for (Object id : invocation.<Iterable<?>>getArgument(0)) {
+                summaries.put((Long) id, new PopularArticle((Long) id, "title " + id, "category", null, 0));
+            }
+            return summaries;
+        });
+        ArticleViewCounter counter = new ArticleViewCounter(mockRepository, 2);
+        counter.loadTotals();
+        for (int i = 0; i < 4; i++) {
+            counter.recordView(2L);
+        }
+        counter.flush();
+        List<PopularArticle> popular = counter.getPopular();
+        assertEquals(2, popular.size());
+        assertEquals(1L, popular.get(0).getId());
+        assertEquals(2L, popular.get(1).getId());
+        assertEquals(5L, popular.get(1).getViews());
+
+        counter.onArticleChanged(new ArticleChangedEvent(ArticleChangedEvent.Type.DELETED,
+                new BlogPost(1L, "category", null, "title 1", null, null)));
+        verify(mockRepository).deleteViewCount(1L);
+        assertEquals(2L, counter.getPopular().get(0).getId());
+        assertEquals(3L, counter.getPopular().get(1).getId());
+    }
+}
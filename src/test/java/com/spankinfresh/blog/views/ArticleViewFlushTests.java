@@ -0,0 +1,36 @@
+package com.spankinfresh.blog.views;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "blog.views.flush-interval-ms=3600000")
+public class ArticleViewFlushTests {
+
+    @Test
+    @DisplayName("T01 - A flush whose insert fails changes nothing, and the retry adds each view once")
+    public void test_01(@Autowired ArticleViewCounter counter, @Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into article_view_count (article_id, views) values (301, 10)");
+        jdbcTemplate.execute("alter table article_view_count add constraint no_article_302 check (article_id <> 302)");
+        for (int i = 0; i < 5; i++) {
+            counter.recordView(301L);
+        }
+        counter.recordView(302L);
+        counter.flush();
+        assertEquals(10L, views(jdbcTemplate, 301));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from article_view_count where article_id = 302", Integer.class));
+
+        jdbcTemplate.execute("alter table article_view_count drop constraint no_article_302");
+        counter.flush();
+        assertEquals(15L, views(jdbcTemplate, 301));
+        assertEquals(1L, views(jdbcTemplate, 302));
+    }
+
+    private static long views(JdbcTemplate jdbcTemplate, long articleId) {
+        return jdbcTemplate.queryForObject("select views from article_view_count where article_id = ?", Long.class, articleId);
+    }
+}